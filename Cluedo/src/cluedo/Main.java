@@ -1,18 +1,58 @@
 package cluedo;
 
+import java.util.function.Supplier;
+
+import cluedo.game.AssetLoader;
 import cluedo.game.Board;
 import cluedo.gui.GraphicsUI;
+import cluedo.sim.Bot;
+import cluedo.sim.DeducingBot;
+import cluedo.sim.SeekingBot;
+import cluedo.sim.SimulationStats;
+import cluedo.sim.Simulator;
 
 /**
  * Entry-point to the Cluedo program. Initialises the game and
  * restarts it, once it has been completed and if the user wishes to do so.
+ * Run with "-simulate <games>" (and optionally "-players <n>",
+ * "-seed <seed>" and "-deduce") to play games between bots instead, or with
+ * "-replay <seed>" to replay a single one of those games. The bots are
+ * SeekingBots, or DeducingBots with "-deduce".
  * 
  * @author Louis Thie
  */
 public class Main {
+	private static final int MAX_SIMULATED_TURNS = 1000;
+	
 	private static GraphicsUI gui;
 	
 	public static void main(String[] args) {
+		long games = 0;
+		int players = 6;
+		long seed = System.currentTimeMillis();
+		Long replay = null;
+		boolean deduce = false;
+		
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-simulate") && i+1 < args.length) {
+				games = Long.parseLong(args[++i]);
+			} else if (args[i].equals("-players") && i+1 < args.length) {
+				players = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-seed") && i+1 < args.length) {
+				seed = Long.parseLong(args[++i]);
+			} else if (args[i].equals("-replay") && i+1 < args.length) {
+				replay = Long.parseLong(args[++i]);
+			} else if (args[i].equals("-deduce")) {
+				deduce = true;
+			}
+		}
+		
+		if (games > 0 || replay != null) {
+			simulate(games, players, seed, replay, deduce);
+			return;
+		}
+		
+		AssetLoader.launched();
 		gui = new GraphicsUI(new Board());
 		
 		/* TextUI setup
@@ -50,9 +90,41 @@ public class Main {
 		}*/
 	}
 	
+	/**
+	 * Plays games between bots without opening a window, and prints the results.
+	 * 
+	 * @param games		how many games to play
+	 * @param players	how many players each game has
+	 * @param seed		the seed of the whole batch
+	 * @param replay	the seed of a single game to replay instead, or null
+	 * @param deduce	whether to play DeducingBots rather than SeekingBots
+	 */
+	private static void simulate(long games, int players, long seed, Long replay, final boolean deduce) {
+		System.setProperty("java.awt.headless", "true");
+		Simulator sim = new Simulator(players, new Supplier<Bot>() {
+			public Bot get() {
+				return deduce? new DeducingBot() : new SeekingBot();
+			}
+		}, MAX_SIMULATED_TURNS);
+		
+		if (replay != null) {
+			System.out.println(sim.playGame(replay));
+			return;
+		}
+		
+		long start = System.nanoTime();
+		SimulationStats stats = sim.run(seed, games);
+		double secs = (System.nanoTime() - start) / 1e9;
+		
+		System.out.println("Batch seed "+seed);
+		System.out.println(stats);
+		System.out.printf("%.2f s, %.0f games/s%n", secs, games / secs);
+	}
+	
 	public static void restartGame() {
 		gui.setVisible(false);
 		gui.dispose();
+		AssetLoader.launched();
 		gui = new GraphicsUI(new Board());
 	}
 
@@ -0,0 +1,118 @@
+package cluedo.game;
+
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the game's images in the background, so that the window can appear
+ * without waiting for all of them (see ImageAsset). Also keeps track of how
+ * long it took from launching the game until the board was first drawn,
+ * which is only printed if the system property "cluedo.timing" is set to true.
+ * 
+ * Nothing is loaded in the background when there is no screen to draw on,
+ * such as while simulating games; images are then only loaded if they are
+ * asked for.
+ * 
+ * @author Louis Thie
+ */
+public final class AssetLoader {
+	private static final boolean background = !GraphicsEnvironment.isHeadless();
+	private static final boolean report = Boolean.getBoolean("cluedo.timing");
+	
+	private static final ExecutorService pool = Executors.newFixedThreadPool(
+			Math.max(1, Runtime.getRuntime().availableProcessors()),
+			new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+				
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "asset-loader-"+count.incrementAndGet());
+					t.setDaemon(true);	// never keep the game running
+					return t;
+				}
+			});
+	
+	private static final AtomicInteger requested = new AtomicInteger();
+	private static final AtomicInteger loaded = new AtomicInteger();
+	
+	private static volatile long launchTime = System.nanoTime();
+	private static volatile boolean firstFrameDrawn = false;
+	// measured when the first frame was drawn, or -1 before then
+	private static volatile long firstFrameMillis = -1;
+	private static volatile int loadedByFirstFrame = -1;
+	
+	private AssetLoader() {}
+	
+	/**
+	 * Starts loading an image in the background.
+	 * 
+	 * @param load	the loading of the image
+	 */
+	static void preload(Runnable load) {
+		if (background)
+			pool.execute(load);
+	}
+	
+	/**
+	 * Called whenever an image has finished loading, in the background or not.
+	 */
+	static void loaded() {
+		loaded.incrementAndGet();
+	}
+	
+	/**
+	 * Called whenever an ImageAsset is created.
+	 */
+	static void requested() {
+		requested.incrementAndGet();
+	}
+	
+	/**
+	 * Marks the moment the game was (re)started, which the time until the
+	 * first frame is measured from.
+	 */
+	public static void launched() {
+		launchTime = System.nanoTime();
+		firstFrameDrawn = false;
+		firstFrameMillis = -1;
+		loadedByFirstFrame = -1;
+	}
+	
+	/**
+	 * Called each time the board is drawn. The first time after each launch,
+	 * records how long it has been since the launch, and how many of the
+	 * images had been loaded by then.
+	 */
+	public static void frameDrawn() {
+		if (firstFrameDrawn) return;
+		firstFrameDrawn = true;
+		
+		loadedByFirstFrame = loaded.get();
+		firstFrameMillis = (System.nanoTime() - launchTime) / 1000000;
+		if (report)
+			System.out.println("First frame drawn "+firstFrameMillis+" ms after launch ("
+					+loadedByFirstFrame+" of "+requested.get()+" images loaded)");
+	}
+	
+	/**
+	 * Returns how long it took from the last launch until the board was
+	 * first drawn.
+	 * 
+	 * @return	the time in milliseconds, or -1 if it has not been drawn yet
+	 */
+	public static long firstFrameMillis() {
+		return firstFrameMillis;
+	}
+	
+	/**
+	 * Returns how many images had been loaded when the board was first drawn
+	 * after the last launch.
+	 * 
+	 * @return	the number of images, or -1 if it has not been drawn yet
+	 */
+	public static int loadedByFirstFrame() {
+		return loadedByFirstFrame;
+	}
+}
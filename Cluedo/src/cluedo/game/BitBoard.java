@@ -0,0 +1,207 @@
+package cluedo.game;
+
+import java.util.Arrays;
+
+/**
+ * A set of squares of the board, packed one bit per square into an array of
+ * longs. Squares are normally numbered row * Board.COLS + column (see
+ * Board.square), so each row is a run of consecutive bits. A BitBoard can
+ * equally be numbered column * Board.ROWS + row, so that each column is a run
+ * of consecutive bits instead; only neighboursInto cares which is used.
+ * 
+ * None of the operations allocate anything, so they can be used freely in the
+ * hot paths of a simulation.
+ * 
+ * @author Louis Thie
+ */
+public final class BitBoard {
+	/**
+	 * The number of squares on the board.
+	 */
+	public static final int SQUARES = Board.ROWS * Board.COLS;
+	
+	private static final int WORDS = (SQUARES + 63) >>> 6;
+	
+	// squares which wrap round to the start of the next row when moving right,
+	// or to the end of the previous row when moving left
+	private static final BitBoard FIRST_COLUMN = new BitBoard();
+	private static final BitBoard LAST_COLUMN = new BitBoard();
+	// squares which are on the board at all, to mask off the end of the last word
+	private static final BitBoard ALL = new BitBoard();
+	static {
+		for (int row = 0; row < Board.ROWS; row++) {
+			FIRST_COLUMN.set(Board.square(row, 0));
+			LAST_COLUMN.set(Board.square(row, Board.COLS-1));
+		}
+		ALL.setRange(0, SQUARES-1);
+	}
+	
+	private final long[] words = new long[WORDS];
+	
+	/**
+	 * Constructs an empty BitBoard.
+	 */
+	public BitBoard() {}
+	
+	/**
+	 * Returns whether the given square is in this set.
+	 * 
+	 * @param square	the number of the square
+	 * @return			whether it is set
+	 */
+	public boolean get(int square) {
+		return (words[square >>> 6] & (1L << square)) != 0;
+	}
+	
+	public void set(int square) {
+		words[square >>> 6] |= 1L << square;
+	}
+	
+	public void clear(int square) {
+		words[square >>> 6] &= ~(1L << square);
+	}
+	
+	/**
+	 * Empties this set.
+	 */
+	public void clear() {
+		Arrays.fill(words, 0);
+	}
+	
+	/**
+	 * Adds every square from first to last, inclusive.
+	 */
+	public void setRange(int first, int last) {
+		for (int square = first; square <= last; square++) {
+			set(square);
+		}
+	}
+	
+	/**
+	 * Checks whether every square from first to last, inclusive, is in this set.
+	 * A run within one row or one column touches at most two words.
+	 * 
+	 * @param first		the first square of the run
+	 * @param last		the last square of the run
+	 * @return			whether they are all set
+	 */
+	public boolean allSet(int first, int last) {
+		int firstWord = first >>> 6, lastWord = last >>> 6;
+		for (int w = firstWord; w <= lastWord; w++) {
+			long mask = rangeMask(w, first, last);
+			if ((words[w] & mask) != mask) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Checks whether none of the squares from first to last, inclusive, are in
+	 * this set.
+	 * 
+	 * @param first		the first square of the run
+	 * @param last		the last square of the run
+	 * @return			whether none of them are set
+	 */
+	public boolean noneSet(int first, int last) {
+		int firstWord = first >>> 6, lastWord = last >>> 6;
+		for (int w = firstWord; w <= lastWord; w++) {
+			if ((words[w] & rangeMask(w, first, last)) != 0) return false;
+		}
+		return true;
+	}
+	
+	private static long rangeMask(int word, int first, int last) {
+		long mask = -1L;
+		if (first >>> 6 == word) mask &= -1L << first;
+		if (last >>> 6 == word) mask &= -1L >>> (63 - (last & 63));
+		return mask;
+	}
+	
+	public boolean isEmpty() {
+		for (long w : words) {
+			if (w != 0) return false;
+		}
+		return true;
+	}
+	
+	public int count() {
+		int count = 0;
+		for (long w : words) {
+			count += Long.bitCount(w);
+		}
+		return count;
+	}
+	
+	public boolean intersects(BitBoard other) {
+		for (int i = 0; i < WORDS; i++) {
+			if ((words[i] & other.words[i]) != 0) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the first square in this set at or after the given one.
+	 * 
+	 * @param from	the square to start looking at
+	 * @return		the next square, or -1 if there are none
+	 */
+	public int nextSetBit(int from) {
+		if (from >= SQUARES) return -1;
+		int w = from >>> 6;
+		long word = words[w] & (-1L << from);
+		while (true) {
+			if (word != 0)
+				return (w << 6) + Long.numberOfTrailingZeros(word);
+			if (++w == WORDS)
+				return -1;
+			word = words[w];
+		}
+	}
+	
+	public void copyFrom(BitBoard other) {
+		System.arraycopy(other.words, 0, words, 0, WORDS);
+	}
+	
+	public void or(BitBoard other) {
+		for (int i = 0; i < WORDS; i++) {
+			words[i] |= other.words[i];
+		}
+	}
+	
+	public void and(BitBoard other) {
+		for (int i = 0; i < WORDS; i++) {
+			words[i] &= other.words[i];
+		}
+	}
+	
+	public void andNot(BitBoard other) {
+		for (int i = 0; i < WORDS; i++) {
+			words[i] &= ~other.words[i];
+		}
+	}
+	
+	/**
+	 * Sets dest to every square next to (above, below, left or right of) a
+	 * square in this set. Only valid for BitBoards numbered row by row.
+	 * 
+	 * @param dest	the BitBoard to overwrite, which must not be this one
+	 */
+	public void neighboursInto(BitBoard dest) {
+		long[] in = words, out = dest.words;
+		for (int i = 0; i < WORDS; i++) {
+			long prev = (i > 0)? in[i-1] : 0;
+			long next = (i < WORDS-1)? in[i+1] : 0;
+			
+			long right = (in[i] << 1) | (prev >>> 63);
+			long left = (in[i] >>> 1) | (next << 63);
+			long down = (in[i] << Board.COLS) | (prev >>> (64 - Board.COLS));
+			long up = (in[i] >>> Board.COLS) | (next << (64 - Board.COLS));
+			
+			// stepping right from the last column lands on the first, and vice versa
+			out[i] = (right & ~FIRST_COLUMN.words[i])
+					| (left & ~LAST_COLUMN.words[i])
+					| down | up;
+			out[i] &= ALL.words[i];
+		}
+	}
+}
@@ -1,14 +1,12 @@
 package cluedo.game;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Random;
 
-import cluedo.gui.GraphicsUI;
-
 /**
  * Stores all the information or references required for a game of Cluedo to complete.
- * Handles all the main logic of the game, as well as the interfacing with the UI.
+ * Handles all the main logic of the game. Anything the players need to be told
+ * is passed on to a BoardListener, so no UI is needed to play a game.
  * 
  * @author Louis Thie
  */
@@ -19,12 +17,45 @@ public class Board {
 	 * @author Louis Thie
 	 */
 	public enum Direction {
-		UP,
-		RIGHT,
-		DOWN,
-		LEFT
+		UP(-1, 0),
+		RIGHT(0, 1),
+		DOWN(1, 0),
+		LEFT(0, -1);
+		
+		private int rowStep, colStep;
+		
+		private Direction(int rowStep, int colStep) {
+			this.rowStep = rowStep;
+			this.colStep = colStep;
+		}
+		
+		/**
+		 * Returns how much a step in this Direction changes the row by.
+		 * 
+		 * @return	-1, 0 or 1
+		 */
+		public int rowStep() {
+			return rowStep;
+		}
+		
+		/**
+		 * Returns how much a step in this Direction changes the column by.
+		 * 
+		 * @return	-1, 0 or 1
+		 */
+		public int colStep() {
+			return colStep;
+		}
 	}
 	
+	/**
+	 * The size of the game board.
+	 */
+	public static final int ROWS = 26, COLS = 24;
+	
+	// the squares and Rooms of the board, which are the same in every game
+	private static final BoardTopology topology = BoardTopology.STANDARD;
+	
 	private ArrayList<Player> players;
 	private Player currentPlayer;
 	private ArrayList<Character> characters;
@@ -33,27 +64,13 @@ public class Board {
 	private ArrayList<Card> pack;
 	private ArrayList<Card> envelope;
 	private ArrayList<Card> faceUpCards = new ArrayList<Card>();
+	// the same cards as bitmasks of Card ids
+	private int envelopeMask = 0, faceUpMask = 0;
 	
-	private GraphicsUI gui;
-	
-	/**
-	 * 0 = empty
-	 * 1 = corridor
-	 * 2 = Kitchen
-	 * 3 = Ballroom
-	 * 4 = Conservatory
-	 * 5 = Billiard Room
-	 * 6 = Dining Room
-	 * 7 = Library
-	 * 8 = Hall
-	 * 9 = Lounge
-	 * 10 = Study
-	 * 11 = NW/SE stairs
-	 * 12 = NE/SW stairs
-	 */
-	private int[][] grid;
+	private BoardListener listener = BoardListener.SILENT;
 	
 	/**
+	 * Indexed by square (see square(row, col)).
 	 * 0 = empty
 	 * 1 = Miss Scarlett
 	 * 2 = Professor Plum
@@ -62,10 +79,12 @@ public class Board {
 	 * 5 = Mrs. White
 	 * 6 = Colonel Mustard
 	 */
-	private int[][] playerGrid;
+	private byte[] occupants;
 	
-	private char[][] roomNames;
+	// the occupied squares, numbered row by row like the corridors of the topology
+	private BitBoard occupied = new BitBoard();
 	
+	private long seed;
 	private Random rand;
 	private boolean gameOver = false;
 	
@@ -73,12 +92,30 @@ public class Board {
 	private int diceRoll;
 	private int remainingMoves;
 	
+	// reused by moveTo, so that working out a route allocates nothing
+	private final BitBoard routeStarts = new BitBoard(), routeEnds = new BitBoard();
+	private Reachability reachability;
+	// the corridor square the last route found by stepsTo ends on
+	private int routeEnd;
+	
 	/**
 	 * Constructs a Board object.
 	 */
 	public Board() {
+		this(System.currentTimeMillis());
+	}
+	
+	/**
+	 * Constructs a Board object whose dice, dealing and placement of the
+	 * weapons are all decided by the given seed, so that the same seed
+	 * (and the same moves) will always play out the same game.
+	 * 
+	 * @param seed	the seed for this game's random numbers
+	 */
+	public Board(long seed) {
 		players = new ArrayList<Player>();
-		rand = new Random(System.currentTimeMillis());
+		this.seed = seed;
+		rand = new Random(seed);
 		
 		setupGame();
 	}
@@ -88,7 +125,7 @@ public class Board {
 		setupRooms();
 		setupWeapons();
 		setupPack();
-		setupGrids();
+		occupants = new byte[ROWS * COLS];
 	}
 	
 	private void setupChars() {
@@ -101,37 +138,16 @@ public class Board {
 	
 	private void setupRooms() {
 		rooms = new ArrayList<Room>();
-		Room kitchen = null, study = null, lounge = null, conservatory = null;
 		
 		for (Room.RoomName name : Room.RoomName.values()) {
 			rooms.add(new Room(name));
-			switch (name) {
-			case KITCHEN:
-				kitchen = rooms.get(rooms.size()-1);
-				break;
-			case STUDY:
-				study = rooms.get(rooms.size()-1);
-				break;
-			case LOUNGE:
-				lounge = rooms.get(rooms.size()-1);
-				break;
-			case CONSERVATORY:
-				conservatory = rooms.get(rooms.size()-1);
-				break;
-			default:
-				break;
-			}
 		}
 		
-		// should not technically need this,
-		// but my laptop would not compile without it for some reason
-		if (kitchen == null || study == null || lounge == null || conservatory == null)
-			throw new RuntimeException("The linked rooms shouldn't be null at this point.");
-		
-		kitchen.connectTo(study);
-		study.connectTo(kitchen);
-		lounge.connectTo(conservatory);
-		conservatory.connectTo(lounge);
+		for (Room r : rooms) {
+			int other = topology.connectionOf(r.toInt());
+			if (other >= 0)
+				r.connectTo(rooms.get(other));
+		}
 	}
 	
 	private void setupWeapons() {
@@ -166,30 +182,41 @@ public class Board {
 		
 		for (int i = 0; i < characters.size(); i++) {
 			pack.add(new Card(characters.get(i), i == murderChar));
-			if (i == murderChar)
+			if (i == murderChar) {
 				envelope.add(pack.get(pack.size()-1));
+				envelopeMask |= pack.get(pack.size()-1).bit();
+			}
 		}
 		
 		for (int i = 0; i < weapons.size(); i++) {
 			pack.add(new Card(weapons.get(i), i == murderWeapon));
-			if (i == murderWeapon)
+			if (i == murderWeapon) {
 				envelope.add(pack.get(pack.size()-1));
+				envelopeMask |= pack.get(pack.size()-1).bit();
+			}
 		}
 		
 		for (int i = 0; i < rooms.size(); i++) {
 			pack.add(new Card(rooms.get(i), i == murderRoom));
-			if (i == murderRoom)
+			if (i == murderRoom) {
 				envelope.add(pack.get(pack.size()-1));
+				envelopeMask |= pack.get(pack.size()-1).bit();
+			}
 		}
 	}
 	
 	/**
-	 * Set the UI to be used for this game.
+	 * Set the listener to be told about the outcomes of this game.
 	 * 
-	 * @param ui	the UI to use
+	 * @param listener	the listener to use, or null to play silently
 	 */
-	public void setUI(GraphicsUI gui) {
-		this.gui = gui;
+	public void setListener(BoardListener listener) {
+		this.listener = (listener == null)? BoardListener.SILENT : listener;
+	}
+	
+	// the listener, for the Turn being played on this
+	BoardListener listener() {
+		return listener;
 	}
 	
 	/**
@@ -201,6 +228,15 @@ public class Board {
 		return currentPlayer;
 	}
 	
+	/**
+	 * Returns the seed this game's random numbers were generated from.
+	 * 
+	 * @return	the seed of this game
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
 	public int getDiceRoll() {
 		return diceRoll;
 	}
@@ -229,228 +265,247 @@ public class Board {
 	 * @return			true if the Character was moved, false otherwise
 	 */
 	public boolean move(Character c, Direction d, Room origin) {
-		if (c != null) {
-			int row = c.getRow();
-			int col = c.getCol();
-			
-			if (d.equals(Direction.UP)) {
-				if (row == 0) {
-					// trying to move out of the array
-					gui.notification("Sorry, you cannot move in that direction");
-					return false;
-				}
-				if (grid[row][col] == 1 
-						&& grid[row-1][col] == 1
-						&& playerGrid[row-1][col] == 0) {	// cannot move through other characters
-					// in a corridor
-					playerGrid[row-1][col] = playerGrid[row][col];
-					playerGrid[row][col] = 0;
-					c.setRow(row-1);
-					return true;
-				} else if (grid[row][col] != 1) {
-					// inside a room - covered by the gui now
-					/*Room r = getRoomByCode(grid[row][col]);
-					if (r.canLeave(d)) {
-						Point exit = r.getExitPoint(d, this);
-						int exitRow = (int) exit.getX();
-						int exitCol = (int) exit.getY();
-						if (playerGrid[exitRow][exitCol] == 0) {
-							playerGrid[exitRow][exitCol] = c.toInt() + 1;
-							c.leaveRoom();
-							c.setRow(exitRow);
-							c.setCol(exitCol);
-							r.removeCharacter(c);
-							return true;
-						} else {
-							gui.notification("Sorry, there is already a character standing in that spot.");
-							return false;
-						}
-					}*/
-				} else if (grid[row-1][col] != 1) {
-					if (grid[row-1][col] == 0) {
-						// trying to move out of the array
-						gui.notification("Sorry, you cannot move in that direction");
-						return false;
-					}
-					// trying to enter a room
-					Room r = getRoomByCode(grid[row-1][col]);
-					if (r.equals(origin)) {
-						gui.notification("Sorry, you cannot re-enter a room you left this turn.");
-						return false;
-					}
-					if (r.canEnter(row, col, row-1, col)) {
-						playerGrid[row][col] = 0;
-						r.addCharacter(c);
-						c.enterRoom(r);
-						return true;
-					}
-				}
-			} else if (d.equals(Direction.DOWN)) {
-				if (row == grid.length-1) {
-					// trying to move out of the array
-					gui.notification("Sorry, you cannot move in that direction");
-					return false;
-				}
-				if (grid[row][col] == 1 
-						&& grid[row+1][col] == 1
-						&& playerGrid[row+1][col] == 0) {	// cannot move through other characters
-					// in a corridor
-					playerGrid[row+1][col] = playerGrid[row][col];
-					playerGrid[row][col] = 0;
-					c.setRow(row+1);
-					return true;
-				} else if (grid[row][col] != 1) {
-					// inside a room - covered by the gui now
-					/*Room r = getRoomByCode(grid[row][col]);
-					if (r.canLeave(d)) {
-						Point exit = r.getExitPoint(d, this);
-						int exitRow = (int) exit.getX();
-						int exitCol = (int) exit.getY();
-						if (playerGrid[exitRow][exitCol] == 0) {
-							playerGrid[exitRow][exitCol] = c.toInt() + 1;
-							c.leaveRoom();
-							c.setRow(exitRow);
-							c.setCol(exitCol);
-							r.removeCharacter(c);
-							return true;
-						} else {
-							gui.notification("Sorry, there is already a character standing in that spot.");
-							return false;
-						}
-					}*/
-				} else if (grid[row+1][col] != 1) {
-					if (grid[row+1][col] == 0) {
-						// trying to move out of the array
-						gui.notification("Sorry, you cannot move in that direction");
-						return false;
-					}
-					// trying to enter a room
-					Room r = getRoomByCode(grid[row+1][col]);
-					if (r.equals(origin)) {
-						gui.notification("Sorry, you cannot re-enter a room you left this turn.");
-						return false;
-					}
-					if (r.canEnter(row, col, row+1, col)) {
-						playerGrid[row][col] = 0;
-						r.addCharacter(c);
-						c.enterRoom(r);
-						return true;
-					}
-				}
-			} else if (d.equals(Direction.LEFT)) {
-				if (col == 0) {
-					// trying to move out of the array
-					gui.notification("Sorry, you cannot move in that direction");
-					return false;
-				}
-				if (grid[row][col] == 1 
-						&& grid[row][col-1] == 1
-						&& playerGrid[row][col-1] == 0) {	// cannot move through other characters
+		if (c == null) {
+			listener.notification("Sorry, there was an error (character was null).");
+			return false;
+		}
+		
+		int row = c.getRow();
+		int col = c.getCol();
+		int toRow = row + d.rowStep();
+		int toCol = col + d.colStep();
+		
+		if (toRow < 0 || toRow >= ROWS || toCol < 0 || toCol >= COLS) {
+			// trying to move out of the array
+			listener.notification("Sorry, you cannot move in that direction");
+			return false;
+		}
+		
+		int from = square(row, col);
+		int to = square(toRow, toCol);
+		
+		// characters inside a room leave it through exitRoom instead
+		int toSquare = topology.getSquare(to);
+		if (topology.getSquare(from) == 1) {
+			if (toSquare == 1) {
+				if (occupants[to] == 0) {	// cannot move through other characters
 					// in a corridor
-					playerGrid[row][col-1] = playerGrid[row][col];
-					playerGrid[row][col] = 0;
-					c.setCol(col-1);
+					setOccupant(to, occupants[from]);
+					setOccupant(from, 0);
+					c.setRow(toRow);
+					c.setCol(toCol);
 					return true;
-				} else if (grid[row][col] != 1) {
-					// inside a room - covered by the gui now
-					/*Room r = getRoomByCode(grid[row][col]);
-					if (r.canLeave(d)) {
-						Point exit = r.getExitPoint(d, this);
-						int exitRow = (int) exit.getX();
-						int exitCol = (int) exit.getY();
-						if (playerGrid[exitRow][exitCol] == 0) {
-							playerGrid[exitRow][exitCol] = c.toInt() + 1;
-							c.leaveRoom();
-							c.setRow(exitRow);
-							c.setCol(exitCol);
-							r.removeCharacter(c);
-							return true;
-						} else {
-							gui.notification("Sorry, there is already a character standing in that spot.");
-							return false;
-						}
-					}*/
-				} else if (grid[row][col-1] != 1) {
-					if (grid[row][col-1] == 0) {
-						// trying to move out of the array
-						gui.notification("Sorry, you cannot move in that direction");
-						return false;
-					}
-					// trying to enter a room
-					Room r = getRoomByCode(grid[row][col-1]);
-					if (r.equals(origin)) {
-						gui.notification("Sorry, you cannot re-enter a room you left this turn.");
-						return false;
-					}
-					if (r.canEnter(row, col, row, col-1)) {
-						playerGrid[row][col] = 0;
-						r.addCharacter(c);
-						c.enterRoom(r);
-						return true;
-					}
 				}
-			} else if (d.equals(Direction.RIGHT)) {
-				if (col == grid[row].length-1) {
-					// trying to move out of the array
-					gui.notification("Sorry, you cannot move in that direction");
+			} else if (toSquare == 0 || toSquare >= 11) {
+				// trying to move out of the array, or onto a secret passage
+				listener.notification("Sorry, you cannot move in that direction");
+				return false;
+			} else {
+				// trying to enter a room
+				Room r = getRoomByCode(toSquare);
+				if (r.equals(origin)) {
+					listener.notification("Sorry, you cannot re-enter a room you left this turn.");
 					return false;
 				}
-				if (grid[row][col] == 1 
-						&& grid[row][col+1] == 1
-						&& playerGrid[row][col+1] == 0) {	// cannot move through other characters
-					// in a corridor
-					playerGrid[row][col+1] = playerGrid[row][col];
-					playerGrid[row][col] = 0;
-					c.setCol(col+1);
+				if (r.canEnter(row, col, toRow, toCol)) {
+					setOccupant(from, 0);
+					r.addCharacter(c);
+					c.enterRoom(r);
 					return true;
-				} else if (grid[row][col] != 1) {
-					// inside a room - covered by the gui now
-					/*Room r = getRoomByCode(grid[row][col]);
-					if (r.canLeave(d)) {
-						Point exit = r.getExitPoint(d, this);
-						int exitRow = (int) exit.getX();
-						int exitCol = (int) exit.getY();
-						if (playerGrid[exitRow][exitCol] == 0) {
-							playerGrid[exitRow][exitCol] = c.toInt() + 1;
-							c.leaveRoom();
-							c.setRow(exitRow);
-							c.setCol(exitCol);
-							r.removeCharacter(c);
-							return true;
-						} else {
-							gui.notification("Sorry, there is already a character standing in that spot.");
-							return false;
-						}
-					}*/
-				} else if (grid[row][col+1] != 0) {
-					if (grid[row][col+1] == 0) {
-						// trying to move out of the array
-						gui.notification("Sorry, you cannot move in that direction");
-						return false;
-					}
-					// trying to enter a room
-					Room r = getRoomByCode(grid[row][col+1]);
-					if (r.equals(origin)) {
-						gui.notification("Sorry, you cannot re-enter a room you left this turn.");
-						return false;
-					}
-					if (r.canEnter(row, col, row, col+1)) {
-						playerGrid[row][col] = 0;
-						r.addCharacter(c);
-						c.enterRoom(r);
-						return true;
-					}
 				}
 			}
-			
-			gui.notification("Sorry, the move you requested is invalid. Please try a different move.");
-			return false;
 		}
 		
-		gui.notification("Sorry, there was an error (character was null).");
+		listener.notification("Sorry, the move you requested is invalid. Please try a different move.");
 		return false;
 	}
 	
+	/**
+	 * Moves a Character out of the Room it is in, onto the square just outside
+	 * one of the Room's doors. Uses up one move.
+	 * 
+	 * @param c		the Character to move
+	 * @param row	the row of the square to exit onto
+	 * @param col	the column of the square to exit onto
+	 * @return		true if the Character left the Room, false otherwise
+	 */
+	public boolean exitRoom(Character c, int row, int col) {
+		Room r = c.location();
+		if (r == null || !isFree(row, col) || !r.exitToPoint(c, row, col)) {
+			listener.notification("Sorry, you cannot leave the room that way.");
+			return false;
+		}
+		
+		setOccupant(square(row, col), c.toInt()+1);
+		r.removeCharacter(c);
+		c.leaveRoom();
+		c.setRow(row);
+		c.setCol(col);
+		decrementMoves();
+		return true;
+	}
+	
+	/**
+	 * Moves a Character through the secret passageway at the given square,
+	 * which must lead out of the Room the Character is in. Taking a passageway
+	 * uses up all of the remaining moves.
+	 * 
+	 * @param c		the Character to move
+	 * @param row	the row of the passageway
+	 * @param col	the column of the passageway
+	 * @return		true if the Character took the passageway, false otherwise
+	 */
+	public boolean takePassage(Character c, int row, int col) {
+		Room passageRoom = getRoomForPassage(row, col);
+		if (passageRoom == null || !passageRoom.equals(c.location())) {
+			listener.notification("Sorry, you can only take a secret passageway from the room it is in.");
+			return false;
+		}
+		
+		Room endRoom = passageRoom.connection();
+		passageRoom.removeCharacter(c);
+		c.enterRoom(endRoom);
+		endRoom.addCharacter(c);
+		remainingMoves = 0;
+		return true;
+	}
+	
+	/**
+	 * Moves a Character to any square it can get to with the moves it has
+	 * left, along the shortest way there, or into a Room if the square is part
+	 * of one. The whole move is checked before anything is changed, so either
+	 * all of it is made, using up one move for each step, or none of it is.
+	 * Routes are looked up in the board's RouteTable, and only searched for
+	 * when other Characters stand in the way.
+	 * 
+	 * @param c		the Character to move
+	 * @param row	the row of the square to move to
+	 * @param col	the column of the square to move to
+	 * @return		true if the Character was moved, false otherwise
+	 */
+	public boolean moveTo(Character c, int row, int col) {
+		if (row < 0 || row >= ROWS || col < 0 || col >= COLS) {
+			listener.notification("Sorry, you cannot move there.");
+			return false;
+		}
+		
+		int target = square(row, col);
+		int code = topology.getSquare(target);
+		Room into = null;
+		if (code >= 2 && code <= 10) {
+			into = getRoomByCode(code);
+			if (into.equals(c.location())) {
+				listener.notification("You are already in the "+into.name()+".");
+				return false;
+			}
+			if (into.equals(origin)) {
+				listener.notification("Sorry, you cannot re-enter a room you left this turn.");
+				return false;
+			}
+		} else if (code != 1) {
+			listener.notification("Sorry, you cannot move there.");
+			return false;
+		} else if (occupants[target] != 0) {
+			listener.notification((occupants[target] == c.toInt()+1 && c.location() == null)?
+					"You are already there." : "Sorry, somebody is already standing there.");
+			return false;
+		}
+		
+		int steps = stepsTo(c, target, into);
+		if (steps < 0 || steps > remainingMoves) {
+			listener.notification("Sorry, you do not have enough moves left to get there.");
+			return false;
+		}
+		
+		Room from = c.location();
+		if (from != null) {
+			from.removeCharacter(c);
+			c.leaveRoom();
+		} else {
+			setOccupant(square(c.getRow(), c.getCol()), 0);
+		}
+		if (into != null) {
+			into.addCharacter(c);
+			c.enterRoom(into);
+		} else {
+			setOccupant(target, c.toInt()+1);
+		}
+		// a Character in a Room keeps the square it entered from, as with move
+		c.setRow(routeEnd / COLS);
+		c.setCol(routeEnd % COLS);
+		remainingMoves -= steps;
+		return true;
+	}
+	
+	// the fewest steps the Character needs to get to the target square, or
+	// into the given Room, or -1 if it cannot get there
+	private int stepsTo(Character c, int target, Room into) {
+		Room from = c.location();
+		int here = (from == null)? square(c.getRow(), c.getCol()) : -1;
+		
+		// a Room is left onto, and entered from, the free squares outside its doors
+		if (from == null) {
+			routeStarts.clear();
+			routeStarts.set(here);
+		} else {
+			routeStarts.copyFrom(topology.entrances(from.toInt()));
+			routeStarts.andNot(occupied);
+		}
+		if (into == null) {
+			routeEnds.clear();
+			routeEnds.set(target);
+		} else {
+			routeEnds.copyFrom(topology.entrances(into.toInt()));
+			routeEnds.andNot(occupied);
+			if (here >= 0 && topology.entrances(into.toInt()).get(here))
+				routeEnds.set(here);
+		}
+		int extra = ((from == null)? 0 : 1) + ((into == null)? 0 : 1);
+		
+		RouteTable routes = topology.getRoutes();
+		int best = -1, bestStart = -1, bestEnd = -1;
+		for (int s = routeStarts.nextSetBit(0); s >= 0; s = routeStarts.nextSetBit(s+1)) {
+			for (int e = routeEnds.nextSetBit(0); e >= 0; e = routeEnds.nextSetBit(e+1)) {
+				int d = routes.steps(s, e);
+				if (d != RouteTable.UNREACHABLE && (best < 0 || d < best)) {
+					best = d;
+					bestStart = s;
+					bestEnd = e;
+				}
+			}
+		}
+		if (best < 0)
+			return -1;
+		if (best + extra > remainingMoves)
+			return best + extra;	// other Characters could only make it further
+		
+		// follow the shortest route, unless somebody is standing on it
+		int square = bestStart;
+		boolean clear = (square == here) || !occupied.get(square);
+		while (clear && square != bestEnd) {
+			square = routes.nextSquare(square, bestEnd);
+			clear = !occupied.get(square);
+		}
+		if (clear) {
+			routeEnd = bestEnd;
+			return best + extra;
+		}
+		
+		// otherwise search for the shortest way around them
+		if (reachability == null)
+			reachability = new Reachability(this);
+		reachability.compute(c, remainingMoves);
+		best = -1;
+		for (int e = routeEnds.nextSetBit(0); e >= 0; e = routeEnds.nextSetBit(e+1)) {
+			int d = (e == here)? 0 : reachability.movesTo(e / COLS, e % COLS);
+			if (d >= 0 && (best < 0 || d < best)) {
+				best = d;
+				routeEnd = e;
+			}
+		}
+		return (best < 0)? -1 : best + ((into == null)? 0 : 1);
+	}
+	
 	/**
 	 * Checks whether the game is over.
 	 * 
@@ -460,59 +515,143 @@ public class Board {
 		return gameOver;
 	}
 	
+	/**
+	 * Adds a Player to this game, playing as the given Character. All Players
+	 * must be added before the game is started.
+	 * 
+	 * @param name	the name of the new Player
+	 * @param c		the Character they will play as
+	 * @return		the new Player
+	 */
+	public Player addPlayer(String name, Character c) {
+		if (c.player() != null)
+			throw new IllegalArgumentException(c.name()+" has already been chosen by "+c.player().name());
+		
+		Player p = new Player(name);
+		p.chooseCharacter(c);
+		c.assignTo(p);
+		players.add(p);
+		return p;
+	}
+	
 	/**
 	 * Sets up everything directly connected to the players of this game.
+	 * The Players must already have been added through addPlayer.
 	 */
 	public void startGame() {
-		// Welcome players
-		gui.notification("Welcome to Cluedo, the Great Detective Game!");
-		// Allow players to choose their characters
-		setupPlayers();
+		if (players.isEmpty())
+			throw new IllegalStateException("Players must be added before the game is started.");
+		
+		// Put the players' characters on their starting squares
+		setupCharGrid();
 		// Deal non-murder-component cards to players
 		dealCards();
 		// Put the weapons in rooms, maximum one at a time
 		setOutWeapons();
+		
+		currentPlayer = players.get(0);
 	}
 	
+	/**
+	 * Starts the turn of the current Player by rolling the dice, or ends the
+	 * game if there is nobody left to play against.
+	 */
 	public void startTurn() {
 		if (currentPlayer == null) currentPlayer = players.get(0);
-		
+		
+		if (livingPlayers() > 1) {
+			rollDice();
+		} else {
+			endByElimination();
+		}
+	}
+	
+	/**
+	 * Rolls the dice for the current Player's turn, and remembers which Room
+	 * they started it in.
+	 */
+	public void rollDice() {
+		diceRoll = rand.nextInt(6) + 1;
+		diceRoll += rand.nextInt(6) + 1;
+		
+		remainingMoves = diceRoll;
+		
+		origin = currentPlayer.character().location();
+		
+		listener.turnStarted(currentPlayer);
+	}
+	
+	/**
+	 * Returns how many Players have not been eliminated.
+	 * 
+	 * @return	the number of Players still playing
+	 */
+	public int livingPlayers() {
 		int aliveCount = 0;
 		for (Player p : players) {
 			if (p.isAlive()) aliveCount++;
 		}
+		return aliveCount;
+	}
+	
+	// ends the game once everybody else has made a false accusation
+	void endByElimination() {
+		gameOver = true;
 		
-		if (aliveCount > 1) {
-			diceRoll = rand.nextInt(6) + 1;
-			diceRoll += rand.nextInt(6) + 1;
-			
-			remainingMoves = diceRoll;
-			
-			origin = currentPlayer.character().location();
-		} else {
-			gameOver = true;
+		Player winner = null;
+		for (Player p : players) {
+			if (p.isAlive()) winner = p;
 		}
+		listener.gameOver(winner);
 	}
 	
+	/**
+	 * Ends the current Player's turn, and starts the next one.
+	 */
 	public void endTurn() {
-		int nextPlayer = 0;
+		nextPlayer();
+		startTurn();
+	}
+	
+	/**
+	 * Passes play on to the next Player who has not been eliminated, without
+	 * starting their turn.
+	 */
+	public void nextPlayer() {
+		currentPlayer = getNextPlayer();
+	}
+	
+	/**
+	 * Returns the Player whose turn will be next: the next one in seating
+	 * order who has not been eliminated.
+	 * 
+	 * @return	the next Player
+	 */
+	public Player getNextPlayer() {
+		int next = players.indexOf(currentPlayer);
 		for (int i = 0; i < players.size(); i++) {
-			if (players.get(i).equals(currentPlayer)) {
-				nextPlayer = i+1;
-			}
-		}
-		if (nextPlayer == players.size()) nextPlayer = 0;
-		currentPlayer = players.get(nextPlayer);
-		
-		if (!currentPlayer.isAlive()) {
-			endTurn();
-		} else {
-			startTurn();
+			next = (next+1) % players.size();
+			if (players.get(next).isAlive()) break;
 		}
+		return players.get(next);
+	}
+	
+	/**
+	 * Checks whether the given Character, Weapon and Room are the ones in the
+	 * murder envelope.
+	 * 
+	 * @param c		the accused Character
+	 * @param w		the accused Weapon
+	 * @param r		the accused Room
+	 * @return		whether the accusation is correct
+	 */
+	public boolean isSolution(Character c, Weapon w, Room r) {
+		return envelopeMask == Card.mask(c, w, r);
 	}
 	
 	public void win() {
 		gameOver = true;
+		listener.gameOver(currentPlayer);
 	}
 	
 	public ArrayList<Player> getHypoPlayers() {
@@ -533,24 +672,104 @@ public class Board {
 		return null;
 	}
 	
-	public Room origin() {
-		return origin;
+	/**
+	 * Makes a suggestion for the current Player, in the Room they are in, and
+	 * works out who refutes it, all in one go. The suspect and weapon are
+	 * brought into the Room, then each of the other Players is asked in turn,
+	 * starting from the next one, until one of them holds a suggested card.
+	 * They show one of their matching cards, chosen by the given revealer.
+	 * 
+	 * This is the whole of a suggestion without any UI, for bots and
+	 * simulations; Turn asks each Player in a separate step instead, but
+	 * finds the refuter and checks the card shown in the same way (see
+	 * refuterOf and checkShown).
+	 * 
+	 * @param c			the suspect
+	 * @param w			the weapon
+	 * @param revealer	chooses the card the refuter shows
+	 * @return			who refuted the suggestion, and with which card
+	 * @throws IllegalStateException	if the current Player is not in a Room
+	 */
+	public SuggestionResult suggest(Character c, Weapon w, CardRevealer revealer) {
+		Room r = currentPlayer.character().location();
+		if (r == null)
+			throw new IllegalStateException("Suggestions can only be made from inside a room.");
+		bringToRoom(c, r);
+		bringToRoom(w, r);
+		
+		int cards = Card.mask(c, w, r);
+		Player p = refuterOf(currentPlayer, cards);
+		if (p == null)
+			return new SuggestionResult(currentPlayer, cards, null, SuggestionResult.NONE);
+		int shown = revealer.reveal(p, currentPlayer, p.handMask() & cards);
+		checkShown(p, cards, shown);
+		return new SuggestionResult(currentPlayer, cards, p, shown);
 	}
 	
-	private void setupPlayers() {
-		int people = gui.getPlayerCount();
-		
-		for (int i = 0; i < people; i++) {
-			HashMap<String,Object> userInfo = gui.askForUserInfo(
-					characters.toArray(new Character[6]));
-			Player p = new Player((String)userInfo.get("name"));
-			p.chooseCharacter((Character)userInfo.get("character"));
-			((Character)userInfo.get("character")).assignTo(p);
-			
-			players.add(p);
+	/**
+	 * Returns the Player who must refute a suggestion of the given cards:
+	 * the first of the other Players, starting from the one after the
+	 * suggester, who holds any of them.
+	 * 
+	 * @param suggester		the Player making the suggestion
+	 * @param cards			the suggested cards, as a bitmask of Card ids
+	 * @return				the refuter, or null if nobody can refute it
+	 */
+	public Player refuterOf(Player suggester, int cards) {
+		int seat = players.indexOf(suggester);
+		for (int i = 1; i < players.size(); i++) {
+			Player p = players.get((seat + i) % players.size());
+			if (p.canRefute(cards))
+				return p;
 		}
-		
-		setupCharGrid();
+		return null;
+	}
+	
+	/**
+	 * Checks that the given card is one the refuter could show to refute a
+	 * suggestion of the given cards.
+	 * 
+	 * @param refuter		the Player refuting the suggestion
+	 * @param cards			the suggested cards, as a bitmask of Card ids
+	 * @param shown			the id of the card they show
+	 * @throws IllegalArgumentException		if it is not one of their matching cards
+	 */
+	public void checkShown(Player refuter, int cards, int shown) {
+		if (shown < 0 || shown >= Card.COUNT || (refuter.handMask() & cards & (1 << shown)) == 0)
+			throw new IllegalArgumentException("Card "+shown+" does not refute the suggestion.");
+	}
+	
+	/**
+	 * Moves a Character into the given Room, wherever it currently is.
+	 * Used to bring the suspect of a hypothesis into the Room it was made in.
+	 * 
+	 * @param c		the Character to move
+	 * @param r		the Room to move it to
+	 */
+	public void bringToRoom(Character c, Room r) {
+		if (c.location() != null) {
+			c.location().removeCharacter(c);
+		} else if (occupants[square(c.getRow(), c.getCol())] == c.toInt()+1) {
+			setOccupant(square(c.getRow(), c.getCol()), 0);
+		}
+		c.enterRoom(r);
+		r.addCharacter(c);
+	}
+	
+	/**
+	 * Moves a Weapon into the given Room, out of the Room it is currently in.
+	 * 
+	 * @param w		the Weapon to move
+	 * @param r		the Room to move it to
+	 */
+	public void bringToRoom(Weapon w, Room r) {
+		w.location().removeWeapon(w);
+		w.moveToRoom(r);
+		r.addWeapon(w);
+	}
+	
+	public Room origin() {
+		return origin;
 	}
 	
 	private void dealCards() {
@@ -572,6 +791,7 @@ public class Board {
 		// lay any remaining cards face-up on the table
 		for (Card c : cards) {
 			faceUpCards.add(c);
+			faceUpMask |= c.bit();
 		}
 	}
 	
@@ -589,87 +809,123 @@ public class Board {
 		}
 	}
 	
-	private void setupGrids() {
-		int[][] boardArr = {
-				{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0},
-				{0,0,0,0,0,0,0,0,0,1,0,0,0,0,1,0,0,0,0,0,0,0,0,0},
-				{2,2,2,2,2,11,0,1,1,1,3,3,3,3,1,1,1,0,4,4,4,4,4,4},
-				{2,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,4,4,4,4,4,4},
-				{2,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,4,4,4,4,4,4},
-				{2,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,4,4,4,4,4,4},
-				{2,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,1,4,4,4,12,0},
-				{0,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,1,1,1,1,1,1},
-				{1,1,1,1,1,1,1,1,3,3,3,3,3,3,3,3,1,1,1,1,1,1,1,0},
-				{0,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,5,5,5,5,5,5},
-				{6,6,6,6,6,1,1,1,1,1,1,1,1,1,1,1,1,1,5,5,5,5,5,5},
-				{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,5,5,5,5,5,5},
-				{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,5,5,5,5,5,5},
-				{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,5,5,5,5,5,5},
-				{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,1,1,1,1,1,0},
-				{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,7,7,7,7,7,0},
-				{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,7,7,7,7,7,7,7},
-				{0,1,1,1,1,1,1,1,1,1,0,0,0,0,0,1,1,7,7,7,7,7,7,7},
-				{1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,7,7,7,7,7,7,7},
-				{0,1,1,1,1,1,1,1,1,8,8,8,8,8,8,1,1,1,7,7,7,7,7,0},
-				{12,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,1,1,1,1,1,1,1},
-				{9,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,1,1,1,1,1,1,0},
-				{9,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,10,10,10,10,10,10,11},
-				{9,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,10,10,10,10,10,10,10},
-				{9,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,10,10,10,10,10,10,10},
-				{9,9,9,9,9,9,0,1,0,8,8,8,8,8,8,0,1,0,10,10,10,10,10,10}
-		};
-		
-		grid = boardArr;
-		
-		roomNames = new char[26][49];	// for all the room names
-		
-		addName("Kitchen", 3, 3);
-		addName("Conser-", 2, 39);
-		addName("vatory", 3, 40);
-		addName("Ballroom", 4, 21);
-		addName("Billiard", 9, 39);
-		addName("Room", 10, 41);
-		addName("Dining", 11, 5);
-		addName("Room", 12, 6);
-		addName("Library", 16, 38);
-		addName("Lounge", 21, 4);
-		addName("Hall", 20, 22);
-		addName("Study", 22, 39);
-	}
-	
 	private void setupCharGrid() {
-		playerGrid = new int[26][24];
-		
 		// note: these values are the same as the ordinal value (+1) of the respective character's name
 		for (int i = 0; i < players.size(); i++) {
 			Character c = players.get(i).character();
-			playerGrid[c.getStartRow()][c.getStartCol()] = c.toInt() + 1;
+			setOccupant(square(c.getStartRow(), c.getStartCol()), c.toInt() + 1);
 		}
 	}
 	
-	private void addName(String name, int row, int column) {
-		char[] room = name.toCharArray();
-		for (int col = column; (col-column) < room.length; col++) {
-			roomNames[row][col] = room[col-column];
+	private void setOccupant(int square, int code) {
+		occupants[square] = (byte) code;
+		if (code == 0) {
+			occupied.clear(square);
+		} else {
+			occupied.set(square);
 		}
 	}
 	
 	/**
-	 * Returns the 2D grid representing the positions of every Player's Character.
+	 * Puts a Character straight onto the given corridor square, however far
+	 * away it is, taking it out of any Room it is in. Meant for setting up
+	 * positions rather than for moving during a turn.
+	 * 
+	 * @param c		the Character to place
+	 * @param row	the row of the square
+	 * @param col	the column of the square
+	 */
+	public void placeCharacter(Character c, int row, int col) {
+		if (!isFree(row, col))
+			throw new IllegalArgumentException("("+row+", "+col+") is not a free corridor square.");
+		
+		if (c.location() != null) {
+			c.location().removeCharacter(c);
+			c.leaveRoom();
+		} else if (occupants[square(c.getRow(), c.getCol())] == c.toInt()+1) {
+			setOccupant(square(c.getRow(), c.getCol()), 0);
+		}
+		setOccupant(square(row, col), c.toInt()+1);
+		c.setRow(row);
+		c.setCol(col);
+	}
+	
+	/**
+	 * Returns the number of the given square, which is what the board's
+	 * squares are indexed by: row * COLS + col.
+	 * 
+	 * @param row	the row of the square
+	 * @param col	the column of the square
+	 * @return		the number of the square
+	 */
+	public static int square(int row, int col) {
+		return row * COLS + col;
+	}
+	
+	/**
+	 * Returns what is on the game board at the given square.
+	 * Key:
+	 *  0 = empty
+	 *  1 = corridor
+	 *  2 = Kitchen
+	 *  3 = Ballroom
+	 *  4 = Conservatory
+	 *  5 = Billiard Room
+	 *  6 = Dining Room
+	 *  7 = Library
+	 *  8 = Hall
+	 *  9 = Lounge
+	 * 10 = Study
+	 * 11 = NW/SE stairs
+	 * 12 = NE/SW stairs
+	 * 
+	 * @param row	the row of the square
+	 * @param col	the column of the square
+	 * @return		the code of the square
+	 */
+	public int getSquare(int row, int col) {
+		return topology.getSquare(square(row, col));
+	}
+	
+	/**
+	 * Returns which Character is standing on the given corridor square (see
+	 * occupants for the key). Characters in Rooms are not included.
 	 * 
-	 * @return	the grid of Characters
+	 * @param row	the row of the square
+	 * @param col	the column of the square
+	 * @return		the code of the Character, or 0 if the square is empty
 	 */
-	public int[][] getPlayerGrid() {
-		return playerGrid;
+	public int getOccupant(int row, int col) {
+		return occupants[square(row, col)];
 	}
 	
 	/**
-	 * Returns the 2D grid representing the game board.
+	 * Checks whether the given square is a corridor with nobody standing on it.
 	 * 
-	 * @return	the game board
+	 * @param row	the row of the square
+	 * @param col	the column of the square
+	 * @return		whether a Character could step onto the square
+	 */
+	public boolean isFree(int row, int col) {
+		int square = square(row, col);
+		return topology.corridors().get(square) && !occupied.get(square);
+	}
+	
+	/**
+	 * Returns the parts of the board which are the same in every game.
+	 * 
+	 * @return	the BoardTopology of this Board
+	 */
+	public BoardTopology getTopology() {
+		return topology;
+	}
+	
+	/**
+	 * Returns the squares Characters are standing on, numbered row by row.
+	 * Shared, so must not be modified.
 	 */
-	public int[][] getGrid() {
-		return grid;
+	BitBoard occupied() {
+		return occupied;
 	}
 	
 	/**
@@ -678,7 +934,7 @@ public class Board {
 	 * @return	the grid of Room names
 	 */
 	public char[][] getRoomNameGrid() {
-		return roomNames;
+		return topology.getRoomNameGrid();
 	}
 	
 	/**
@@ -691,7 +947,16 @@ public class Board {
 	public ArrayList<Card> getFaceUpCards() {
 		return faceUpCards;
 	}
-
+	
+	/**
+	 * Returns the face-up Cards as a bitmask of Card ids.
+	 * 
+	 * @return	the bits of the face-up Cards
+	 */
+	public int getFaceUpMask() {
+		return faceUpMask;
+	}
+	
 	/**
 	 * Returns a List of all the Players in the game.
 	 * 
@@ -700,7 +965,7 @@ public class Board {
 	public ArrayList<Player> getPlayers() {
 		return players;
 	}
-
+	
 	/**
 	 * Returns a List of all the Characters in the game.
 	 * For testing purposes.
@@ -710,7 +975,7 @@ public class Board {
 	public ArrayList<Character> getCharacters() {
 		return characters;
 	}
-
+	
 	/**
 	 * Returns a List of all the Weapons in the game.
 	 * For testing purposes.
@@ -720,7 +985,7 @@ public class Board {
 	public ArrayList<Weapon> getWeapons() {
 		return weapons;
 	}
-
+	
 	/**
 	 * Returns a List of all the Rooms in the game.
 	 * For testing purposes.
@@ -752,6 +1017,36 @@ public class Board {
 		return envelope;
 	}
 	
+	/**
+	 * Returns the Cards in the murder envelope as a bitmask of Card ids.
+	 * 
+	 * @return		the bits of the murder components
+	 */
+	public int getEnvelopeMask() {
+		return envelopeMask;
+	}
+	
+	/**
+	 * Returns the Card with the given id. The pack is made in the order of
+	 * the ids, so this is just a lookup.
+	 * 
+	 * @param id	the id of the Card (see Card.id)
+	 * @return		the Card
+	 */
+	public Card getCard(int id) {
+		return pack.get(id);
+	}
+	
+	/**
+	 * Returns the shortest distances between the squares and Rooms of the board.
+	 * These are the same for every game, so they are only worked out once.
+	 * 
+	 * @return	the DistanceOracle for the board
+	 */
+	public DistanceOracle getDistances() {
+		return topology.getDistances();
+	}
+	
 	/**
 	 * Returns the Room which is represented by num in the game board.
 	 * Key:
@@ -770,32 +1065,32 @@ public class Board {
 	 * @return		null if num does not represent any Room
 	 */
 	public Room getRoomByCode(int num) {
-		for (Room r : rooms) {
-			if (r.toInt() == num-2)
-				return r;
-		}
-		return null;
+		// rooms are stored in the order of their names, so toInt() is their index
+		if (num < 2 || num-2 >= rooms.size())
+			return null;
+		return rooms.get(num-2);
 	}
-
+	
 	public Character getCharacterByCode(int num) {
-		for (Character c : characters) {
-			if (c.toInt() == num-1)
-				return c;
-		}
-		return null;
+		// as are the characters
+		if (num < 1 || num-1 >= characters.size())
+			return null;
+		return characters.get(num-1);
 	}
 	
 	public Room getRoomForPassage(int row, int col) {
-		if (row == 20 && col == 0) {
-			return getRoomByCode(9);
-		} else if (row == 22 && col == 23) {
-			return getRoomByCode(10);
-		} else if (row == 2 && col == 5) {
-			return getRoomByCode(2);
-		} else if (row == 6 && col == 22) {
-			return getRoomByCode(4);
-		}
-		return null;
+		int room = topology.passageRoomAt(row, col);
+		return (room < 0)? null : rooms.get(room);
+	}
+	
+	/**
+	 * Returns the square of the secret passageway leading out of the given Room.
+	 * 
+	 * @param r		the Room to find the passageway of
+	 * @return		{row, column} of the passageway, or null if r has none
+	 */
+	public int[] getPassageForRoom(Room r) {
+		return topology.passageOf(r.toInt());
 	}
 	
 	/**
@@ -0,0 +1,48 @@
+package cluedo.game;
+
+/**
+ * Receives the outcomes of the actions taken on a Board. This is the only way
+ * the game logic talks back to whoever is driving it, so a Board can be run
+ * by a graphical UI, a server or a batch simulation alike.
+ * 
+ * @author Louis Thie
+ */
+public interface BoardListener {
+	/**
+	 * A listener which ignores every event. Boards start out with this one,
+	 * so they can be played without any UI attached.
+	 */
+	public static final BoardListener SILENT = new BoardListener() {
+		public void notification(String message) {}
+	};
+	
+	/**
+	 * Called whenever the players should be told something, such as why a
+	 * move they requested was rejected.
+	 * 
+	 * @param message	the message for the players
+	 */
+	public void notification(String message);
+	
+	/**
+	 * Called once the dice have been rolled for a new turn.
+	 * 
+	 * @param p		the Player whose turn it is
+	 */
+	public default void turnStarted(Player p) {}
+	
+	/**
+	 * Called whenever a Turn moves on to another phase, such as when a
+	 * suggestion has been made and the next player must try to refute it.
+	 * 
+	 * @param turn	the Turn, already in its new phase
+	 */
+	public default void phaseChanged(Turn turn) {}
+	
+	/**
+	 * Called once the game has finished.
+	 * 
+	 * @param winner	the Player who won, or null if nobody did
+	 */
+	public default void gameOver(Player winner) {}
+}
@@ -0,0 +1,222 @@
+package cluedo.game;
+
+import java.util.Arrays;
+
+/**
+ * Everything about the layout of the game board which is the same in every
+ * game: what each square is, where the Rooms and their doors are, which Rooms
+ * are joined by secret passageways, where the Rooms' names are written, and
+ * the distances between all of these.
+ *
+ * None of it ever changes, so it is built once and shared by every Board,
+ * which only keeps the state of its own game (see BoardTopology.STANDARD).
+ * Nothing returned from here may be modified.
+ *
+ * @author Louis Thie
+ */
+public final class BoardTopology {
+	// see Board.getSquare for the key
+	private static final int[][] BOARD = {
+			{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0},
+			{0,0,0,0,0,0,0,0,0,1,0,0,0,0,1,0,0,0,0,0,0,0,0,0},
+			{2,2,2,2,2,11,0,1,1,1,3,3,3,3,1,1,1,0,4,4,4,4,4,4},
+			{2,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,4,4,4,4,4,4},
+			{2,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,4,4,4,4,4,4},
+			{2,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,4,4,4,4,4,4},
+			{2,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,1,4,4,4,12,0},
+			{0,2,2,2,2,2,1,1,3,3,3,3,3,3,3,3,1,1,1,1,1,1,1,1},
+			{1,1,1,1,1,1,1,1,3,3,3,3,3,3,3,3,1,1,1,1,1,1,1,0},
+			{0,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,5,5,5,5,5,5},
+			{6,6,6,6,6,1,1,1,1,1,1,1,1,1,1,1,1,1,5,5,5,5,5,5},
+			{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,5,5,5,5,5,5},
+			{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,5,5,5,5,5,5},
+			{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,5,5,5,5,5,5},
+			{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,1,1,1,1,1,0},
+			{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,1,7,7,7,7,7,0},
+			{6,6,6,6,6,6,6,6,1,1,0,0,0,0,0,1,1,7,7,7,7,7,7,7},
+			{0,1,1,1,1,1,1,1,1,1,0,0,0,0,0,1,1,7,7,7,7,7,7,7},
+			{1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,7,7,7,7,7,7,7},
+			{0,1,1,1,1,1,1,1,1,8,8,8,8,8,8,1,1,1,7,7,7,7,7,0},
+			{12,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,1,1,1,1,1,1,1},
+			{9,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,1,1,1,1,1,1,0},
+			{9,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,10,10,10,10,10,10,11},
+			{9,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,10,10,10,10,10,10,10},
+			{9,9,9,9,9,9,9,1,1,8,8,8,8,8,8,1,1,10,10,10,10,10,10,10},
+			{9,9,9,9,9,9,0,1,0,8,8,8,8,8,8,0,1,0,10,10,10,10,10,10}
+	};
+	
+	// {row, column, room} of each secret passageway, the room being the one it leads out of
+	private static final int[][] PASSAGES = {
+			{20, 0, Room.RoomName.LOUNGE.ordinal()},
+			{22, 23, Room.RoomName.STUDY.ordinal()},
+			{2, 5, Room.RoomName.KITCHEN.ordinal()},
+			{6, 22, Room.RoomName.CONSERVATORY.ordinal()}
+	};
+	
+	/**
+	 * The layout of the standard Cluedo board.
+	 */
+	public static final BoardTopology STANDARD = new BoardTopology();
+	
+	private final byte[] squares = new byte[BitBoard.SQUARES];
+	
+	// numbered row by row (see Board.square)
+	private final BitBoard corridors = new BitBoard();
+	
+	// indexed by Room.toInt()
+	private final BitBoard[] entrances;
+	private final int[] connections;
+	private final int[][] passages;
+	
+	private final char[][] roomNames = new char[Board.ROWS][49];
+	
+	private final DistanceOracle distances;
+	private final RouteTable routes;
+	
+	private BoardTopology() {
+		for (int row = 0; row < Board.ROWS; row++) {
+			for (int col = 0; col < Board.COLS; col++) {
+				squares[Board.square(row, col)] = (byte) BOARD[row][col];
+				if (BOARD[row][col] == 1) {
+					corridors.set(Board.square(row, col));
+				}
+			}
+		}
+		
+		Room.RoomName[] names = Room.RoomName.values();
+		entrances = new BitBoard[names.length];
+		for (Room.RoomName name : names) {
+			entrances[name.ordinal()] = new BitBoard();
+			for (int[] exit : Room.exitsOf(name)) {
+				entrances[name.ordinal()].set(Board.square(exit[0], exit[1]));
+			}
+		}
+		
+		connections = new int[names.length];
+		passages = new int[names.length][];
+		Arrays.fill(connections, -1);
+		connect(Room.RoomName.KITCHEN, Room.RoomName.STUDY);
+		connect(Room.RoomName.LOUNGE, Room.RoomName.CONSERVATORY);
+		for (int[] passage : PASSAGES) {
+			passages[passage[2]] = new int[]{passage[0], passage[1]};
+		}
+		
+		addName("Kitchen", 3, 3);
+		addName("Conser-", 2, 39);
+		addName("vatory", 3, 40);
+		addName("Ballroom", 4, 21);
+		addName("Billiard", 9, 39);
+		addName("Room", 10, 41);
+		addName("Dining", 11, 5);
+		addName("Room", 12, 6);
+		addName("Library", 16, 38);
+		addName("Lounge", 21, 4);
+		addName("Hall", 20, 22);
+		addName("Study", 22, 39);
+		
+		distances = new DistanceOracle(this);
+		routes = new RouteTable(this);
+	}
+	
+	private void connect(Room.RoomName a, Room.RoomName b) {
+		connections[a.ordinal()] = b.ordinal();
+		connections[b.ordinal()] = a.ordinal();
+	}
+	
+	private void addName(String name, int row, int column) {
+		char[] room = name.toCharArray();
+		for (int col = column; (col-column) < room.length; col++) {
+			roomNames[row][col] = room[col-column];
+		}
+	}
+	
+	/**
+	 * Returns what is on the board at the given square (see Board.getSquare
+	 * for the key).
+	 *
+	 * @param square	the number of the square (see Board.square)
+	 * @return			the code of the square
+	 */
+	public int getSquare(int square) {
+		return squares[square];
+	}
+	
+	/**
+	 * Returns the corridor squares, numbered row by row.
+	 */
+	BitBoard corridors() {
+		return corridors;
+	}
+	
+	/**
+	 * Returns the squares just outside the doors of the Room with the given
+	 * toInt(), numbered row by row.
+	 */
+	BitBoard entrances(int room) {
+		return entrances[room];
+	}
+	
+	/**
+	 * Returns the toInt() of the Room at the other end of the secret
+	 * passageway out of the given Room.
+	 *
+	 * @param room	the toInt() of the Room
+	 * @return		the toInt() of the connected Room, or -1 if there is none
+	 */
+	public int connectionOf(int room) {
+		return connections[room];
+	}
+	
+	/**
+	 * Returns the toInt() of the Room whose secret passageway is on the given
+	 * square.
+	 *
+	 * @param row	the row of the square
+	 * @param col	the column of the square
+	 * @return		the toInt() of the Room, or -1 if there is no passageway there
+	 */
+	public int passageRoomAt(int row, int col) {
+		for (int[] passage : PASSAGES) {
+			if (passage[0] == row && passage[1] == col)
+				return passage[2];
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns the square of the secret passageway out of the given Room.
+	 *
+	 * @param room	the toInt() of the Room
+	 * @return		{row, column} of the passageway, or null if there is none
+	 */
+	public int[] passageOf(int room) {
+		return passages[room];
+	}
+	
+	/**
+	 * Returns the grid of char values from which the Rooms' names can be found.
+	 *
+	 * @return	the grid of Room names
+	 */
+	public char[][] getRoomNameGrid() {
+		return roomNames;
+	}
+	
+	/**
+	 * Returns the shortest distances between the squares and Rooms of the board.
+	 *
+	 * @return	the DistanceOracle for the board
+	 */
+	public DistanceOracle getDistances() {
+		return distances;
+	}
+	
+	/**
+	 * Returns the shortest routes between the corridor squares of the board.
+	 *
+	 * @return	the RouteTable for the board
+	 */
+	public RouteTable getRoutes() {
+		return routes;
+	}
+}
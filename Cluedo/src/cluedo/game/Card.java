@@ -1,16 +1,48 @@
 package cluedo.game;
 
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 
 /**
  * Represents all cards in the Cluedo game, and stores
  * all information regarding those cards.
  * 
+ * Each of the 21 cards has a fixed number, its id: the Characters are 0 to 5,
+ * the Weapons 6 to 11 and the Rooms 12 to 20, each in the order of their
+ * names. A set of cards, such as a hand or the envelope, can then be kept as
+ * a bitmask with bit (1 << id) set for each card in it, so that checking
+ * whether a Player holds any card of a suggestion is a single AND.
+ * 
  * @author Louis Thie
  */
 public class Card {
+	/**
+	 * The number of cards in the game.
+	 */
+	public static final int COUNT = Character.CharacterName.values().length
+			+ Weapon.WeaponName.values().length + Room.RoomName.values().length;
+	
+	/**
+	 * The id of the first Character, Weapon and Room card.
+	 */
+	public static final int FIRST_CHARACTER = 0,
+			FIRST_WEAPON = FIRST_CHARACTER + Character.CharacterName.values().length,
+			FIRST_ROOM = FIRST_WEAPON + Weapon.WeaponName.values().length;
+	
+	/**
+	 * The bitmasks of all the Character, Weapon and Room cards.
+	 */
+	public static final int CHARACTERS = (1 << FIRST_WEAPON) - (1 << FIRST_CHARACTER),
+			WEAPONS = (1 << FIRST_ROOM) - (1 << FIRST_WEAPON),
+			ROOMS = (1 << COUNT) - (1 << FIRST_ROOM);
+	
+	/**
+	 * The bitmask of every card.
+	 */
+	public static final int ALL = (1 << COUNT) - 1;
+	
 	private boolean isMurderComponent;
 	private GamePiece piece;
+	private final int id;
 	
 	/**
 	 * Constructs a Card object, using the GamePiece that the
@@ -23,6 +55,63 @@ public class Card {
 	public Card(GamePiece piece, boolean isMurderComponent) {
 		this.piece = piece;
 		this.isMurderComponent = isMurderComponent;
+		this.id = idOf(piece);
+	}
+	
+	/**
+	 * Returns the id of the card for the given GamePiece.
+	 * 
+	 * @param piece		a Character, Weapon or Room
+	 * @return			the id, from 0 to COUNT-1
+	 */
+	public static int idOf(GamePiece piece) {
+		if (piece instanceof Character)
+			return FIRST_CHARACTER + ((Character)piece).toInt();
+		if (piece instanceof Weapon)
+			return FIRST_WEAPON + ((Weapon)piece).toInt();
+		if (piece instanceof Room)
+			return FIRST_ROOM + ((Room)piece).toInt();
+		throw new IllegalArgumentException(piece+" does not have a card.");
+	}
+	
+	/**
+	 * Returns the bit of the card for the given GamePiece (see idOf).
+	 * 
+	 * @param piece		a Character, Weapon or Room
+	 * @return			1 << its id
+	 */
+	public static int bitOf(GamePiece piece) {
+		return 1 << idOf(piece);
+	}
+	
+	/**
+	 * Returns the bitmask of the three cards of a suggestion or accusation.
+	 * 
+	 * @param c		the Character
+	 * @param w		the Weapon
+	 * @param r		the Room
+	 * @return		the bits of the three cards
+	 */
+	public static int mask(Character c, Weapon w, Room r) {
+		return bitOf(c) | bitOf(w) | bitOf(r);
+	}
+	
+	/**
+	 * Returns this Card's id.
+	 * 
+	 * @return	the id, from 0 to COUNT-1
+	 */
+	public int id() {
+		return id;
+	}
+	
+	/**
+	 * Returns this Card's bit in a bitmask of cards.
+	 * 
+	 * @return	1 << id()
+	 */
+	public int bit() {
+		return 1 << id;
 	}
 	
 	/**
@@ -53,7 +142,13 @@ public class Card {
 		return isMurderComponent;
 	}
 	
-	public ImageIcon icon(String mod) {
-		return piece.icon("_card"+mod);
+	/**
+	 * Returns the picture on this Card.
+	 * 
+	 * @param large		whether to return the full size picture
+	 * @return			the picture of this Card's GamePiece
+	 */
+	public Icon icon(boolean large) {
+		return piece.icon(large? IconVariant.CARD_LARGE : IconVariant.CARD);
 	}
 }
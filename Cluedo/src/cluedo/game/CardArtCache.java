@@ -0,0 +1,161 @@
+package cluedo.game;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * Keeps the large card pictures which have been shown most recently, up to a
+ * limit on how much memory their decoded pixels take up. They are only
+ * needed when a card is clicked on, so rather than holding on to all of them
+ * for the whole game, each is loaded when it is asked for, and the one which
+ * has gone unused the longest is dropped when the limit is reached. They are
+ * only softly held, so they may also be dropped sooner if memory runs low.
+ * 
+ * The limit is 1 MB (about six pictures) unless set otherwise in bytes with
+ * the system property "cluedo.cardArtCache".
+ * 
+ * @author Louis Thie
+ */
+public final class CardArtCache {
+	/**
+	 * The cache of large card pictures.
+	 */
+	public static final CardArtCache LARGE = new CardArtCache(Long.getLong("cluedo.cardArtCache", 1 << 20));
+	
+	private final long capacity;
+	private long size = 0;
+	
+	// keyed by URL string (URL.equals can look hosts up), least recently used first
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	// entries whose pictures have been collected
+	private final ReferenceQueue<ImageIcon> cleared = new ReferenceQueue<ImageIcon>();
+	
+	private long hits = 0, misses = 0, evictions = 0;
+	
+	private CardArtCache(long capacity) {
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * Returns the picture at the given location, loading it if it is not in
+	 * the cache.
+	 * 
+	 * @param url	where the picture is
+	 * @return		the picture
+	 */
+	public synchronized ImageIcon get(URL url) {
+		purge();
+		
+		String key = url.toExternalForm();
+		Entry entry = entries.get(key);
+		ImageIcon icon = (entry == null)? null : entry.get();
+		if (icon != null) {
+			hits++;
+			return icon;
+		}
+		misses++;
+		if (entry != null) {
+			// cleared, but not yet queued for purge() to find
+			entries.remove(key);
+			size -= entry.bytes;
+		}
+		
+		icon = load(url);
+		entry = new Entry(key, icon, cleared);
+		size += entry.bytes;
+		entries.put(key, entry);
+		
+		// always keep the picture just loaded, even if it is over the limit alone
+		Iterator<Entry> it = entries.values().iterator();
+		while (size > capacity && entries.size() > 1) {
+			size -= it.next().bytes;
+			it.remove();
+			evictions++;
+		}
+		return icon;
+	}
+	
+	// forgets the entries whose pictures the garbage collector has cleared
+	private void purge() {
+		Entry entry;
+		while ((entry = (Entry)cleared.poll()) != null) {
+			// only if it is still the entry for its key, which unlike get()
+			// leaves the order of the entries alone
+			if (entries.remove(entry.key, entry))
+				size -= entry.bytes;
+		}
+	}
+	
+	private static ImageIcon load(URL url) {
+		try {
+			return new ImageIcon(ImageIO.read(url));
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not load "+url, e);
+		}
+	}
+	
+	/**
+	 * Returns how many times a picture was asked for and was in the cache.
+	 * 
+	 * @return	the number of hits
+	 */
+	public synchronized long hits() {
+		return hits;
+	}
+	
+	/**
+	 * Returns how many times a picture was asked for and had to be loaded.
+	 * 
+	 * @return	the number of misses
+	 */
+	public synchronized long misses() {
+		return misses;
+	}
+	
+	/**
+	 * Returns how many pictures have been dropped to stay within the limit,
+	 * not counting those cleared by the garbage collector.
+	 * 
+	 * @return	the number of evictions
+	 */
+	public synchronized long evictions() {
+		return evictions;
+	}
+	
+	/**
+	 * Returns how many bytes the pictures in the cache take up.
+	 * 
+	 * @return	the size of the cache
+	 */
+	public synchronized long size() {
+		purge();
+		return size;
+	}
+	
+	@Override
+	public synchronized String toString() {
+		return "Card art cache: "+hits+" hits, "+misses+" misses, "+evictions+" evictions, "
+				+size()/1024+" of "+capacity/1024+" KB used";
+	}
+	
+	/**
+	 * A picture in the cache, and how much memory its pixels take up.
+	 */
+	private static final class Entry extends SoftReference<ImageIcon> {
+		final String key;
+		final long bytes;
+		
+		Entry(String key, ImageIcon icon, ReferenceQueue<ImageIcon> queue) {
+			super(icon, queue);
+			this.key = key;
+			this.bytes = 4L * icon.getIconWidth() * icon.getIconHeight();	// 32-bit pixels
+		}
+	}
+}
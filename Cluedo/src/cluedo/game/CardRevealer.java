@@ -0,0 +1,31 @@
+package cluedo.game;
+
+/**
+ * Chooses which card a Player shows when they refute a suggestion, for
+ * Board.suggest. A GUI would ask the Player, a bot would decide for itself,
+ * and a server would ask the Player's client.
+ * 
+ * @author Louis Thie
+ */
+public interface CardRevealer {
+	/**
+	 * Shows the matching card with the lowest id. Useful when it does not
+	 * matter which card is shown, such as in tests and quick simulations.
+	 */
+	public static final CardRevealer FIRST = new CardRevealer() {
+		public int reveal(Player refuter, Player suggester, int matching) {
+			return Integer.numberOfTrailingZeros(matching);
+		}
+	};
+	
+	/**
+	 * Chooses which of the refuter's matching cards to show to the suggester.
+	 * 
+	 * @param refuter		the Player refuting the suggestion
+	 * @param suggester		the Player who made the suggestion
+	 * @param matching		the refuter's cards which are part of the suggestion,
+	 * 						as a bitmask of Card ids with at least one bit set
+	 * @return				the id of one of the matching cards
+	 */
+	public int reveal(Player refuter, Player suggester, int matching);
+}
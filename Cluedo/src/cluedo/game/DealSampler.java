@@ -0,0 +1,204 @@
+package cluedo.game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws whole deals at random which agree with everything known in a
+ * Deduction: which cards are in the envelope and in each Player's hand. This
+ * lets a Player try out what might happen, as if they could see every card.
+ * Every deal which agrees is equally likely to be drawn, and none are ever
+ * thrown away and drawn again.
+ * 
+ * This is done with the counts EnvelopeOdds works out. The envelope is
+ * filled first, each way in proportion to how many deals fill it that way,
+ * then each Player's hand is dealt in turn, in the same order EnvelopeOdds
+ * deals them, each hand in proportion to how many ways there are to deal the
+ * rest of the cards after it. The cards which are interchangeable for the
+ * Player being dealt to are only told apart once they are dealt, by choosing
+ * among them evenly.
+ * 
+ * The choices for each point a deal can reach are worked out the first time
+ * it is reached, and kept until the Deduction changes, so most deals only
+ * need a few lookups each. Everything is kept in arrays which are only made
+ * bigger if they run out of room, so drawing a deal allocates nothing once
+ * they are big enough. A single DealSampler must not be used by more than
+ * one thread at a time.
+ * 
+ * @author Louis Thie
+ */
+public class DealSampler {
+	private final Deduction notes;
+	private final EnvelopeOdds odds;
+	private final SplittableRandom random;
+	private final int players;
+	
+	// indexed by owner, the cards they hold in the last deal drawn
+	private final int[] hands;
+	// the interchangeable cards, while choosing among them
+	private final int[] spare = new int[Card.COUNT];
+	
+	// the choices for each point a deal reaches, kept one after another in
+	// the two arrays; the cache holds where each point's choices start, and
+	// how many there are
+	private final EnvelopeOdds.CountCache choices = new EnvelopeOdds.CountCache();
+	// the cards chosen out of those known something about
+	private int[] chosen = new int[1 << 10];
+	// the number of ways to deal the rest after that choice or any before it
+	private long[] waysUpTo = new long[1 << 10];
+	private int used;
+	// the version of the Deduction the choices were worked out for
+	private long version = -1;
+	
+	/**
+	 * Constructs a DealSampler for the given notebook. The deals follow it as
+	 * it changes.
+	 * 
+	 * @param notes		what is known about where the cards are
+	 * @param random	where the deals' randomness comes from
+	 */
+	public DealSampler(Deduction notes, SplittableRandom random) {
+		this.notes = notes;
+		this.odds = new EnvelopeOdds(notes);
+		this.random = random;
+		this.players = notes.envelope();
+		this.hands = new int[players+1];
+	}
+	
+	/**
+	 * Draws a new deal, which can then be looked at with hand().
+	 * 
+	 * @return	true if a deal was drawn, or false if no deal agrees with
+	 * 			what is known
+	 */
+	public boolean sample() {
+		odds.update();
+		if (version != notes.version()) {
+			version = notes.version();
+			choices.clear();
+			used = 0;
+		}
+		int envelopes = odds.envelopes();
+		if (envelopes == 0) return false;
+		
+		for (int owner = 0; owner <= players; owner++) {
+			hands[owner] = notes.hasMask(owner);
+		}
+		// the first way of filling the envelope with more deals up to it than the number drawn
+		long r = random.nextLong(odds.dealsUpTo(envelopes-1));
+		int lo = 0, hi = envelopes-1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (odds.dealsUpTo(mid) > r) hi = mid; else lo = mid + 1;
+		}
+		hands[players] = odds.envelope(lo);
+		
+		int left = odds.unknown() & ~hands[players];
+		for (int i = 0; i < odds.dealing(); i++) {
+			int constrained = odds.constrained(i);
+			int known = left & constrained, free = left & ~constrained;
+			long key = key(i, known, Integer.bitCount(free));
+			long at = choices.get(key);
+			if (at < 0) {
+				at = addChoices(i, known, Integer.bitCount(free));
+				choices.put(key, at);
+			}
+			int start = (int) (at >>> 32), count = (int) at;
+			int hand = chosen[pick(start, start+count-1)];
+			hand |= spare(free, odds.need(i) - Integer.bitCount(hand));
+			
+			hands[odds.dealtTo(i)] |= hand;
+			left &= ~hand;
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns the cards the given owner holds in the last deal drawn.
+	 * 
+	 * @param owner		the seat of the Player, or Deduction.envelope()
+	 * @return			a bitmask of Card ids
+	 */
+	public int hand(int owner) {
+		return hands[owner];
+	}
+	
+	/**
+	 * Returns the cards each owner holds in the last deal drawn. The array is
+	 * reused, so it must not be modified, and it changes with every deal.
+	 * 
+	 * @return	bitmasks of Card ids, indexed by owner
+	 */
+	public int[] hands() {
+		return hands;
+	}
+	
+	private static long key(int i, int known, int free) {
+		return ((long) i << 32) | ((long) free << Card.COUNT) | known;
+	}
+	
+	// works out the choices of cards known something about for the i'th
+	// Player dealt to, returning where they start and how many there are
+	private long addChoices(int i, int known, int free) {
+		int start = used;
+		int p = odds.dealtTo(i);
+		int candidates = known & ~notes.lacksMask(p);
+		addChoices(i, candidates, 0, odds.need(i), known, free, 0);
+		return ((long) start << 32) | (used - start);
+	}
+	
+	// adds every way of adding up to `extra` more of the candidates to the
+	// hand which leaves some way to deal the rest
+	private long addChoices(int i, int candidates, int hand, int extra, int known, int free, long before) {
+		int p = odds.dealtTo(i);
+		if (free >= extra && odds.satisfies(p, hand | notes.hasMask(p))) {
+			int rest = known & ~hand;
+			int next = odds.constrained(i+1);
+			long ways = EnvelopeOdds.choose(free, extra)
+					* odds.count(i+1, rest & next, free - extra + Integer.bitCount(rest & ~next));
+			if (ways > 0) {
+				if (used == chosen.length) {
+					chosen = Arrays.copyOf(chosen, used * 2);
+					waysUpTo = Arrays.copyOf(waysUpTo, used * 2);
+				}
+				before += ways;
+				chosen[used] = hand;
+				waysUpTo[used++] = before;
+			}
+		}
+		if (extra > 0) {
+			for (int more = candidates; more != 0; more &= more - 1) {
+				int bit = more & -more;
+				before = addChoices(i, more & ~bit, hand | bit, extra - 1, known, free, before);
+			}
+		}
+		return before;
+	}
+	
+	// picks one of a point's choices, each in proportion to the ways to deal the rest after it
+	private int pick(int first, int last) {
+		long r = random.nextLong(waysUpTo[last]);
+		int lo = first, hi = last;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (waysUpTo[mid] > r) hi = mid; else lo = mid + 1;
+		}
+		return lo;
+	}
+	
+	// chooses n of the given cards, each equally likely
+	private int spare(int cards, int n) {
+		int count = 0;
+		for (int c = cards; c != 0; c &= c - 1) {
+			spare[count++] = c & -c;
+		}
+		int hand = 0;
+		for (int k = 0; k < n; k++) {
+			int j = k + random.nextInt(count - k);
+			int bit = spare[j];
+			spare[j] = spare[k];
+			hand |= bit;
+		}
+		return hand;
+	}
+}
@@ -0,0 +1,434 @@
+package cluedo.game;
+
+import java.util.ArrayList;
+
+/**
+ * A detective's notebook which works out everything that follows from what
+ * has been seen during a game: for each Player, which cards they certainly
+ * hold and which they certainly do not, and likewise for the envelope.
+ * 
+ * Each Player and the envelope is an owner, numbered by the Players' seats,
+ * with the envelope last (see envelope()). What is known about each owner is
+ * kept as two bitmasks of Card ids, one of the cards it has and one of the
+ * cards it lacks, along with the suggestions it has refuted without the card
+ * being seen, each of which says that it holds at least one of those cards.
+ * After every piece of news, these are narrowed down until nothing more
+ * follows from them:
+ * 
+ * - every card is in exactly one place, so once an owner is known to have it
+ *   the others lack it, and once all but one lack it, that one has it
+ * - the envelope holds exactly one card of each kind
+ * - each Player holds exactly as many cards as they were dealt, so once that
+ *   many are known they lack the rest, and once only that many are possible
+ *   they have them all
+ * - a refuted suggestion which only one card of is still possible for the
+ *   refuter means they hold that card
+ * 
+ * Everything is kept in arrays made when the Deduction is, and only the
+ * owners whose knowledge changed are looked at again, so each update takes
+ * very little time and allocates nothing.
+ * 
+ * @author Louis Thie
+ */
+public class Deduction {
+	// the most suggestions which can differ, one card of each kind
+	private static final int MAX_CLAUSES = Character.CharacterName.values().length
+			* Weapon.WeaponName.values().length * Room.RoomName.values().length;
+	private static final int[] KINDS = {Card.CHARACTERS, Card.WEAPONS, Card.ROOMS};
+	
+	private final ArrayList<Player> seats;
+	private final int players;
+	// the cards which are not face-up, so are somewhere unseen
+	private final int inPlay;
+	
+	// indexed by owner
+	private final int[] has, lacks, handSize;
+	// [player][i] -> the cards of a suggestion they refuted, of which they hold at least one
+	private final int[][] clauses;
+	private final int[] clauseCount;
+	
+	// bitmask of the owners whose knowledge has changed since they were last looked at
+	private int dirty = 0;
+	private boolean consistent = true;
+	// counts the changes to what is known
+	private long version = 0;
+	
+	/**
+	 * Starts a notebook for the given game, knowing only which cards are
+	 * face-up and how many cards each Player holds. The game must already
+	 * have been started.
+	 * 
+	 * @param board		the Board being played
+	 */
+	public Deduction(Board board) {
+		seats = board.getPlayers();
+		players = seats.size();
+		inPlay = Card.ALL & ~board.getFaceUpMask();
+		
+		has = new int[players+1];
+		lacks = new int[players+1];
+		handSize = new int[players+1];
+		for (int i = 0; i < players; i++) {
+			handSize[i] = seats.get(i).hand().size();
+		}
+		handSize[players] = KINDS.length;
+		clauses = new int[players][MAX_CLAUSES];
+		clauseCount = new int[players];
+		
+		for (int owner = 0; owner <= players; owner++) {
+			addLacks(owner, ~inPlay & Card.ALL);
+		}
+		dirty = (1 << (players+1)) - 1;
+		propagate();
+	}
+	
+	/**
+	 * Records the whole hand of the given Player, such as the Player whose
+	 * notebook this is.
+	 * 
+	 * @param p		the Player whose cards are known
+	 */
+	public void knowHand(Player p) {
+		int seat = seatOf(p);
+		addHas(seat, p.handMask());
+		addLacks(seat, inPlay & ~p.handMask());
+		propagate();
+	}
+	
+	/**
+	 * Records that the given owner holds the given card, such as when it has
+	 * been shown to refute a suggestion.
+	 * 
+	 * @param owner		the seat of the Player, or envelope()
+	 * @param card		the id of the card
+	 */
+	public void sawCard(int owner, int card) {
+		addHas(owner, 1 << card);
+		propagate();
+	}
+	
+	/**
+	 * Records that the given Player holds none of the given cards, such as
+	 * when they could not refute a suggestion.
+	 * 
+	 * @param owner		the seat of the Player, or envelope()
+	 * @param cards		a bitmask of Card ids
+	 */
+	public void holdsNoneOf(int owner, int cards) {
+		addLacks(owner, cards);
+		propagate();
+	}
+	
+	/**
+	 * Records that the given Player holds at least one of the given cards,
+	 * such as when they refuted a suggestion with a card that was not seen.
+	 * 
+	 * @param owner		the seat of the Player
+	 * @param cards		a bitmask of Card ids
+	 */
+	public void holdsOneOf(int owner, int cards) {
+		addClause(owner, cards);
+		propagate();
+	}
+	
+	/**
+	 * Records everything the given Player learned from a suggestion: each
+	 * Player asked before the refuter holds none of the cards, and the
+	 * refuter holds the card shown if it was shown to them, or otherwise at
+	 * least one of the cards.
+	 * 
+	 * @param result	the outcome of the suggestion
+	 * @param viewer	the Player whose notebook this is
+	 */
+	public void observe(SuggestionResult result, Player viewer) {
+		observe(result.suggester(), result.cards(), result.refuter(), result.shownTo(viewer), viewer);
+	}
+	
+	/**
+	 * Records everything the given Player learned from a suggestion (see
+	 * observe(SuggestionResult, Player)).
+	 * 
+	 * @param suggester		the Player who made the suggestion
+	 * @param cards			the suggested cards, as a bitmask of Card ids
+	 * @param refuter		the Player who refuted it, or null if nobody could
+	 * @param shown			the id of the card shown to the viewer, or SuggestionResult.NONE
+	 * @param viewer		the Player whose notebook this is
+	 */
+	public void observe(Player suggester, int cards, Player refuter, int shown, Player viewer) {
+		int from = seatOf(suggester);
+		for (int i = 1; i < players; i++) {
+			Player p = seats.get((from + i) % players);
+			if (p == refuter) break;
+			addLacks((from + i) % players, cards);
+		}
+		
+		if (refuter != null && refuter != viewer) {
+			if (shown != SuggestionResult.NONE) {
+				addHas(seatOf(refuter), 1 << shown);
+			} else {
+				addClause(seatOf(refuter), cards);
+			}
+		}
+		propagate();
+	}
+	
+	private void addHas(int owner, int cards) {
+		cards &= ~has[owner];
+		if (cards == 0) return;
+		if ((cards & lacks[owner]) != 0)
+			consistent = false;
+		has[owner] |= cards;
+		dirty |= 1 << owner;
+		version++;
+	}
+	
+	private void addLacks(int owner, int cards) {
+		cards &= ~lacks[owner];
+		if (cards == 0) return;
+		if ((cards & has[owner]) != 0)
+			consistent = false;
+		lacks[owner] |= cards;
+		dirty |= 1 << owner;
+		version++;
+	}
+	
+	private void addClause(int owner, int cards) {
+		if ((cards & has[owner]) != 0) return;	// already known to hold one
+		int[] cl = clauses[owner];
+		int n = clauseCount[owner];
+		for (int i = 0; i < n; i++) {
+			if (cl[i] == cards) return;
+		}
+		// there is room for every different suggestion; anything else which
+		// does not fit is left out, which only means less is worked out
+		if (n < cl.length) {
+			cl[n] = cards;
+			clauseCount[owner] = n + 1;
+			dirty |= 1 << owner;
+			version++;
+		}
+	}
+	
+	// narrows down what is known until nothing more follows from it
+	private void propagate() {
+		while (consistent && dirty != 0) {
+			while (consistent && dirty != 0) {
+				int owner = Integer.numberOfTrailingZeros(dirty);
+				dirty &= dirty - 1;
+				
+				// whatever one owner has, the others lack
+				for (int other = 0; other <= players; other++) {
+					if (other != owner)
+						addLacks(other, has[owner]);
+				}
+				
+				if (owner == players) {
+					checkEnvelope();
+				} else {
+					checkHandSize(owner);
+					checkClauses(owner);
+				}
+			}
+			
+			// a card which only one owner could have is theirs
+			int once = 0, twice = 0;
+			for (int owner = 0; owner <= players; owner++) {
+				int possible = inPlay & ~lacks[owner];
+				twice |= once & possible;
+				once |= possible;
+			}
+			if ((inPlay & ~once) != 0)
+				consistent = false;	// nobody could have some card
+			int single = once & ~twice;
+			for (int owner = 0; owner <= players; owner++) {
+				addHas(owner, single & ~lacks[owner]);
+			}
+		}
+	}
+	
+	// exactly one card of each kind
+	private void checkEnvelope() {
+		int owner = players;
+		for (int kind : KINDS) {
+			if ((has[owner] & kind) != 0)
+				addLacks(owner, kind & ~has[owner]);
+			int possible = kind & ~lacks[owner];
+			if (possible == 0) {
+				consistent = false;
+			} else if ((possible & (possible - 1)) == 0) {
+				addHas(owner, possible);
+			}
+		}
+	}
+	
+	// exactly as many cards as were dealt
+	private void checkHandSize(int owner) {
+		int possible = inPlay & ~lacks[owner];
+		int known = Integer.bitCount(has[owner]), count = Integer.bitCount(possible);
+		if (known > handSize[owner] || count < handSize[owner]) {
+			consistent = false;
+		} else if (known == handSize[owner]) {
+			addLacks(owner, possible & ~has[owner]);
+		} else if (count == handSize[owner]) {
+			addHas(owner, possible);
+		}
+	}
+	
+	// at least one card of each refuted suggestion
+	private void checkClauses(int owner) {
+		int[] cl = clauses[owner];
+		int i = 0;
+		while (i < clauseCount[owner]) {
+			int possible = cl[i] & ~lacks[owner];
+			if ((possible & has[owner]) != 0) {
+				cl[i] = cl[--clauseCount[owner]];	// satisfied, so no longer needed
+			} else if (possible == 0) {
+				consistent = false;
+				return;
+			} else if ((possible & (possible - 1)) == 0) {
+				addHas(owner, possible);
+				cl[i] = cl[--clauseCount[owner]];
+			} else {
+				i++;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of the envelope among the owners, which is the
+	 * number of Players.
+	 * 
+	 * @return	the envelope's owner number
+	 */
+	public int envelope() {
+		return players;
+	}
+	
+	/**
+	 * Returns the owner number of the given Player, which is their seat.
+	 * 
+	 * @param p		a Player in the game
+	 * @return		their owner number
+	 */
+	public int seatOf(Player p) {
+		int seat = seats.indexOf(p);
+		if (seat < 0)
+			throw new IllegalArgumentException(p.name()+" is not playing this game.");
+		return seat;
+	}
+	
+	/**
+	 * Returns the cards the given owner is known to have.
+	 * 
+	 * @param owner		the seat of a Player, or envelope()
+	 * @return			a bitmask of Card ids
+	 */
+	public int hasMask(int owner) {
+		return has[owner];
+	}
+	
+	/**
+	 * Returns the cards the given owner is known not to have.
+	 * 
+	 * @param owner		the seat of a Player, or envelope()
+	 * @return			a bitmask of Card ids
+	 */
+	public int lacksMask(int owner) {
+		return lacks[owner];
+	}
+	
+	/**
+	 * Returns whether the given owner is known to have the given card.
+	 * 
+	 * @param owner		the seat of a Player, or envelope()
+	 * @param card		the id of the card
+	 * @return			whether they certainly have it
+	 */
+	public boolean has(int owner, int card) {
+		return (has[owner] & (1 << card)) != 0;
+	}
+	
+	/**
+	 * Returns whether the given owner is known not to have the given card.
+	 * 
+	 * @param owner		the seat of a Player, or envelope()
+	 * @param card		the id of the card
+	 * @return			whether they certainly do not have it
+	 */
+	public boolean lacks(int owner, int card) {
+		return (lacks[owner] & (1 << card)) != 0;
+	}
+	
+	/**
+	 * Returns how many suggestions the given Player has refuted which are
+	 * still open, that is, which card they hold is not yet known.
+	 * 
+	 * @param owner		the seat of a Player
+	 * @return			the number of open suggestions
+	 */
+	public int openClauses(int owner) {
+		return clauseCount[owner];
+	}
+	
+	/**
+	 * Returns the open suggestions the given Player has refuted (see
+	 * openClauses). The array is shared, so it must not be modified, and
+	 * only the first openClauses(owner) entries are used.
+	 * 
+	 * @param owner		the seat of a Player
+	 * @return			bitmasks of Card ids, of which they hold at least one each
+	 */
+	public int[] clauses(int owner) {
+		return clauses[owner];
+	}
+	
+	/**
+	 * Returns the cards which are not face-up, and so are in a Player's hand
+	 * or the envelope.
+	 * 
+	 * @return	a bitmask of Card ids
+	 */
+	public int inPlay() {
+		return inPlay;
+	}
+	
+	/**
+	 * Returns how many cards the given owner holds.
+	 * 
+	 * @param owner		the seat of a Player, or envelope()
+	 * @return			the number of cards
+	 */
+	public int handSize(int owner) {
+		return handSize[owner];
+	}
+	
+	/**
+	 * Returns whether all three cards in the envelope are known.
+	 * 
+	 * @return	whether the murder is solved
+	 */
+	public boolean isSolved() {
+		return Integer.bitCount(has[players]) == KINDS.length;
+	}
+	
+	/**
+	 * Returns a number which changes whenever anything more becomes known,
+	 * so that whatever has been worked out from this can tell whether it is
+	 * out of date.
+	 * 
+	 * @return	the number of changes so far
+	 */
+	public long version() {
+		return version;
+	}
+	
+	/**
+	 * Returns whether everything recorded could be true together. It can only
+	 * be false if something was recorded wrongly.
+	 * 
+	 * @return	whether the notebook is consistent
+	 */
+	public boolean isConsistent() {
+		return consistent;
+	}
+}
@@ -0,0 +1,156 @@
+package cluedo.game;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed shortest distances, in steps, from every corridor square of the
+ * board to every Room, and between every pair of Rooms. Entering a Room takes
+ * one step from the square outside one of its doors, leaving a Room takes one
+ * step onto such a square, and taking a secret passageway counts as one step.
+ * Other Characters are not taken into account, as they move every turn.
+ * 
+ * The board never changes, so a single DistanceOracle is shared by every
+ * Board (see BoardTopology.getDistances). Rooms are referred to by their
+ * toInt(), so the tables work for the Rooms of any game.
+ * 
+ * @author Louis Thie
+ */
+public class DistanceOracle {
+	/**
+	 * Returned when a Room cannot be reached at all.
+	 */
+	public static final int UNREACHABLE = -1;
+	
+	private final int cols;
+	private final int cells;
+	private final int roomCount;
+	
+	// [room * cells + square] -> steps into the room, or -1
+	private final byte[] toRoom;
+	// [from * roomCount + to] -> steps from one room into another, or -1
+	private final byte[] betweenRooms;
+	
+	/**
+	 * Builds the distance tables for the given board.
+	 * 
+	 * @param topology	the squares and Rooms of the board
+	 */
+	DistanceOracle(BoardTopology topology) {
+		Room.RoomName[] rooms = Room.RoomName.values();
+		BitBoard corridors = topology.corridors();
+		cols = Board.COLS;
+		cells = BitBoard.SQUARES;
+		roomCount = rooms.length;
+		toRoom = new byte[roomCount * cells];
+		betweenRooms = new byte[roomCount * roomCount];
+		
+		int[] queue = new int[cells];
+		int[] dist = new int[cells];
+		
+		for (Room.RoomName r : rooms) {
+			// breadth-first search outwards from the squares outside the doors
+			Arrays.fill(dist, UNREACHABLE);
+			int head = 0, tail = 0;
+			for (int[] exit : Room.exitsOf(r)) {
+				int square = exit[0] * cols + exit[1];
+				if (dist[square] == UNREACHABLE) {
+					dist[square] = 1;
+					queue[tail++] = square;
+				}
+			}
+			while (head < tail) {
+				int square = queue[head++];
+				int row = square / cols, col = square % cols;
+				tail = visit(corridors, dist, queue, tail, row-1, col, dist[square]);
+				tail = visit(corridors, dist, queue, tail, row+1, col, dist[square]);
+				tail = visit(corridors, dist, queue, tail, row, col-1, dist[square]);
+				tail = visit(corridors, dist, queue, tail, row, col+1, dist[square]);
+			}
+			
+			for (int square = 0; square < cells; square++) {
+				toRoom[r.ordinal() * cells + square] = (byte) dist[square];
+			}
+		}
+		
+		// a passageway takes one step from the room it leaves
+		for (Room.RoomName r : rooms) {
+			int to = topology.connectionOf(r.ordinal());
+			if (to < 0) continue;
+			for (int square = 0; square < cells; square++) {
+				int viaPassage = toRoom[r.ordinal() * cells + square];
+				if (viaPassage == UNREACHABLE) continue;
+				int direct = toRoom[to * cells + square];
+				if (direct == UNREACHABLE || viaPassage + 1 < direct)
+					toRoom[to * cells + square] = (byte) (viaPassage + 1);
+			}
+		}
+		
+		for (Room.RoomName from : rooms) {
+			for (Room.RoomName to : rooms) {
+				int best = UNREACHABLE;
+				if (from == to) {
+					best = 0;
+				} else if (to.ordinal() == topology.connectionOf(from.ordinal())) {
+					best = 1;
+				} else {
+					for (int[] exit : Room.exitsOf(from)) {
+						int d = toRoom[to.ordinal() * cells + exit[0] * cols + exit[1]];
+						if (d != UNREACHABLE && (best == UNREACHABLE || d + 1 < best))
+							best = d + 1;	// the extra step is the one out of the room
+					}
+				}
+				betweenRooms[from.ordinal() * roomCount + to.ordinal()] = (byte) best;
+			}
+		}
+	}
+	
+	private int visit(BitBoard corridors, int[] dist, int[] queue, int tail, int row, int col, int d) {
+		if (row < 0 || row >= Board.ROWS || col < 0 || col >= cols)
+			return tail;
+		int square = row * cols + col;
+		if (!corridors.get(square))
+			return tail;
+		if (dist[square] != UNREACHABLE)
+			return tail;
+		dist[square] = d + 1;
+		queue[tail] = square;
+		return tail + 1;
+	}
+	
+	/**
+	 * Returns how many steps it takes to get from a corridor square into a Room.
+	 * 
+	 * @param row	the row of the square
+	 * @param col	the column of the square
+	 * @param r		the Room to get into
+	 * @return		the number of steps, or UNREACHABLE if the square is not a corridor
+	 */
+	public int stepsToRoom(int row, int col, Room r) {
+		return toRoom[r.toInt() * cells + row * cols + col];
+	}
+	
+	/**
+	 * Returns how many steps it takes to get from one Room into another.
+	 * 
+	 * @param from	the Room to start in
+	 * @param to	the Room to get into
+	 * @return		the number of steps
+	 */
+	public int stepsBetweenRooms(Room from, Room to) {
+		return betweenRooms[from.toInt() * roomCount + to.toInt()];
+	}
+	
+	/**
+	 * Returns how many steps it takes the given Character to get into a Room,
+	 * from wherever it currently is.
+	 * 
+	 * @param c		the Character to move
+	 * @param r		the Room to get into
+	 * @return		the number of steps
+	 */
+	public int steps(Character c, Room r) {
+		if (c.location() != null)
+			return stepsBetweenRooms(c.location(), r);
+		return stepsToRoom(c.getRow(), c.getCol(), r);
+	}
+}
@@ -0,0 +1,373 @@
+package cluedo.game;
+
+import java.util.Arrays;
+
+/**
+ * Works out exactly how likely each card is to be in the envelope, given
+ * everything known in a Deduction, by counting the ways the cards could have
+ * been dealt which agree with it. Every such deal is equally likely, so the
+ * chance of a card being in the envelope is the share of them in which it is.
+ * 
+ * The deals are counted rather than listed. Cards whose owner is already
+ * known are left where they are. Each way of filling the rest of the envelope
+ * is tried, then the rest of the cards are handed out to one Player after
+ * another. How many ways there are to finish a deal from some point on only
+ * depends on which cards are left and whose hands are still to be filled, so
+ * each such count is worked out once and remembered. Cards which none of the
+ * Players still to be dealt to are known anything about are interchangeable,
+ * so only how many of them are left is remembered, not which they are. The
+ * Players most is known about are dealt to first, so that this is true of as
+ * many cards as possible as soon as possible.
+ * 
+ * The odds are only worked out again once the Deduction has changed. A single
+ * EnvelopeOdds must not be used by more than one thread at a time.
+ * 
+ * @author Louis Thie
+ */
+public class EnvelopeOdds {
+	// [n][k] -> the number of ways to choose k things out of n
+	private static final long[][] CHOOSE = new long[Card.COUNT+1][Card.COUNT+1];
+	static {
+		for (int n = 0; n <= Card.COUNT; n++) {
+			CHOOSE[n][0] = 1;
+			for (int k = 1; k <= n; k++) {
+				CHOOSE[n][k] = CHOOSE[n-1][k-1] + CHOOSE[n-1][k];
+			}
+		}
+	}
+	
+	// the most ways there can be to fill the envelope
+	private static final int MAX_ENVELOPES = Integer.bitCount(Card.CHARACTERS)
+			* Integer.bitCount(Card.WEAPONS) * Integer.bitCount(Card.ROOMS);
+	
+	private final Deduction notes;
+	private final int players;
+	
+	// the cards whose owner is not known
+	private int unknown;
+	// each way the envelope could be filled, and the number of deals with it or any before it
+	private final int[] envelopes = new int[MAX_ENVELOPES];
+	private final long[] dealsUpTo = new long[MAX_ENVELOPES];
+	private int envelopeCount;
+	
+	// the Players who still have cards to be dealt to them, in the order they are dealt to
+	private final int[] order, need;
+	private int dealing;
+	// [i] -> the cards which the i'th Player dealt to, or any after them, is known anything about
+	private final int[] constrained;
+	// remembered counts, keyed by player, cards left and interchangeable cards left
+	private final CountCache cache = new CountCache();
+	
+	private final long[] inEnvelope = new long[Card.COUNT];
+	private final double[] odds = new double[Card.COUNT];
+	private long deals;
+	// the version of the Deduction the odds were worked out for
+	private long version = -1;
+	
+	/**
+	 * Constructs an EnvelopeOdds for the given notebook. The odds follow it
+	 * as it changes.
+	 * 
+	 * @param notes		what is known about where the cards are
+	 */
+	public EnvelopeOdds(Deduction notes) {
+		this.notes = notes;
+		this.players = notes.envelope();
+		this.order = new int[players];
+		this.need = new int[players];
+		this.constrained = new int[players+1];
+	}
+	
+	/**
+	 * Returns the chance that the given card is in the envelope.
+	 * 
+	 * @param card		the id of the card
+	 * @return			the probability, from 0 to 1
+	 */
+	public double probability(int card) {
+		update();
+		return odds[card];
+	}
+	
+	/**
+	 * Returns the chance of each card being in the envelope. The array is
+	 * reused, so it must not be modified, and it changes as the Deduction
+	 * does.
+	 * 
+	 * @return	the probabilities, indexed by Card id
+	 */
+	public double[] probabilities() {
+		update();
+		return odds;
+	}
+	
+	/**
+	 * Returns how many deals agree with everything that is known.
+	 * 
+	 * @return	the number of deals, or 0 if the Deduction is inconsistent
+	 */
+	public long consistentDeals() {
+		update();
+		return deals;
+	}
+	
+	/**
+	 * Works out the odds again if the Deduction has changed since they were
+	 * last worked out.
+	 */
+	void update() {
+		if (version == notes.version()) return;
+		version = notes.version();
+		
+		Arrays.fill(inEnvelope, 0);
+		Arrays.fill(odds, 0);
+		deals = 0;
+		envelopeCount = 0;
+		dealing = 0;
+		if (!notes.isConsistent()) return;
+		
+		// cards whose owner is known are dealt to them before anything else
+		int envelope = notes.envelope();
+		int cards = notes.inPlay();
+		for (int owner = 0; owner <= players; owner++) {
+			cards &= ~notes.hasMask(owner);
+		}
+		unknown = cards;
+		
+		// the Players with the most known about them are dealt to first, so
+		// that more of the cards are interchangeable for the rest
+		int dealing = 0;
+		for (int p = 0; p < players; p++) {
+			int extra = notes.handSize(p) - Integer.bitCount(notes.hasMask(p));
+			if (extra == 0) continue;	// nothing more to deal them
+			int known = notes.lacksMask(p) & cards;
+			int[] clauses = notes.clauses(p);
+			for (int i = notes.openClauses(p)-1; i >= 0; i--) {
+				known |= clauses[i];
+			}
+			int i = dealing++;
+			while (i > 0 && Integer.bitCount(known) > Integer.bitCount(constrained[i-1])) {
+				order[i] = order[i-1];
+				need[i] = need[i-1];
+				constrained[i] = constrained[i-1];
+				i--;
+			}
+			order[i] = p;
+			need[i] = extra;
+			constrained[i] = known;
+		}
+		this.dealing = dealing;
+		constrained[dealing] = 0;
+		for (int i = dealing-1; i >= 0; i--) {
+			constrained[i] |= constrained[i+1];
+		}
+		cache.clear();
+		
+		// every way of filling the rest of the envelope with one card of each kind
+		int must = notes.hasMask(envelope);
+		int possible = (cards | must) & ~notes.lacksMask(envelope);
+		for (int cs = possible & Card.CHARACTERS; cs != 0; cs &= cs - 1) {
+			for (int ws = possible & Card.WEAPONS; ws != 0; ws &= ws - 1) {
+				for (int rs = possible & Card.ROOMS; rs != 0; rs &= rs - 1) {
+					int c = cs & -cs, w = ws & -ws, r = rs & -rs;
+					int e = c | w | r;
+					if ((e & must) != must) continue;
+					
+					int left = cards & ~e;
+					long n = count(0, left & constrained[0], Integer.bitCount(left & ~constrained[0]));
+					if (n == 0) continue;
+					deals += n;
+					envelopes[envelopeCount] = e;
+					dealsUpTo[envelopeCount++] = deals;
+					inEnvelope[Integer.numberOfTrailingZeros(c)] += n;
+					inEnvelope[Integer.numberOfTrailingZeros(w)] += n;
+					inEnvelope[Integer.numberOfTrailingZeros(r)] += n;
+				}
+			}
+		}
+		
+		if (deals > 0) {
+			for (int card = 0; card < Card.COUNT; card++) {
+				odds[card] = (double) inEnvelope[card] / deals;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of ways to choose k things out of n.
+	 */
+	static long choose(int n, int k) {
+		return CHOOSE[n][k];
+	}
+	
+	/**
+	 * Returns the cards whose owner is not known.
+	 */
+	int unknown() {
+		return unknown;
+	}
+	
+	/**
+	 * Returns how many ways the envelope could be filled.
+	 */
+	int envelopes() {
+		return envelopeCount;
+	}
+	
+	/**
+	 * Returns the i'th way the envelope could be filled, as a bitmask of Card ids.
+	 */
+	int envelope(int i) {
+		return envelopes[i];
+	}
+	
+	/**
+	 * Returns how many deals fill the envelope in the i'th way or any before it.
+	 */
+	long dealsUpTo(int i) {
+		return dealsUpTo[i];
+	}
+	
+	/**
+	 * Returns how many Players still have cards to be dealt to them.
+	 */
+	int dealing() {
+		return dealing;
+	}
+	
+	/**
+	 * Returns the seat of the i'th Player dealt to.
+	 */
+	int dealtTo(int i) {
+		return order[i];
+	}
+	
+	/**
+	 * Returns how many more cards the i'th Player dealt to is dealt.
+	 */
+	int need(int i) {
+		return need[i];
+	}
+	
+	/**
+	 * Returns the cards which the i'th Player dealt to, or any after them, is
+	 * known anything about. The others are interchangeable from then on.
+	 */
+	int constrained(int i) {
+		return constrained[i];
+	}
+	
+	/**
+	 * Returns the number of ways to deal the cards left to the i'th Player
+	 * dealt to and those after them.
+	 * 
+	 * @param i			which Player to start dealing to
+	 * @param left		the cards left which are among constrained(i)
+	 * @param free		how many other cards are left
+	 * @return			the number of ways
+	 */
+	long count(int i, int left, int free) {
+		if (i == dealing)
+			return (left == 0 && free == 0)? 1 : 0;
+		
+		long key = ((long) i << 32) | ((long) free << Card.COUNT) | left;
+		long cached = cache.get(key);
+		if (cached >= 0)
+			return cached;
+		
+		int candidates = left & ~notes.lacksMask(order[i]);
+		long total = deal(i, candidates, 0, need[i], left, free);
+		cache.put(key, total);
+		return total;
+	}
+	
+	// tries every way of adding up to `extra` more of the candidates to the
+	// i'th Player's hand, filling the rest with interchangeable cards
+	private long deal(int i, int candidates, int hand, int extra, int left, int free) {
+		long total = 0;
+		if (free >= extra && satisfies(order[i], hand | notes.hasMask(order[i]))) {
+			int rest = left & ~hand;
+			int next = constrained[i+1];
+			long ways = count(i+1, rest & next, free - extra + Integer.bitCount(rest & ~next));
+			total += CHOOSE[free][extra] * ways;
+		}
+		if (extra > 0) {
+			for (int more = candidates; more != 0; more &= more - 1) {
+				int bit = more & -more;
+				total += deal(i, more & ~bit, hand | bit, extra - 1, left, free);
+			}
+		}
+		return total;
+	}
+	
+	/**
+	 * Returns whether the given hand holds at least one card of each
+	 * suggestion the Player refuted without the card being seen.
+	 */
+	boolean satisfies(int p, int hand) {
+		int[] clauses = notes.clauses(p);
+		for (int i = notes.openClauses(p)-1; i >= 0; i--) {
+			if ((clauses[i] & hand) == 0)
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * A map from keys to counts, neither of which may be negative, without
+	 * boxing either of them. It only grows, so it is rarely reallocated.
+	 */
+	static final class CountCache {
+		private long[] keys = new long[1 << 12];
+		private long[] counts = new long[1 << 12];
+		private int size = 0;
+		
+		CountCache() {
+			Arrays.fill(keys, -1);
+		}
+		
+		void clear() {
+			if (size == 0) return;
+			Arrays.fill(keys, -1);
+			size = 0;
+		}
+		
+		long get(long key) {
+			int mask = keys.length - 1;
+			for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+				if (keys[i] == key) return counts[i];
+				if (keys[i] == -1) return -1;
+			}
+		}
+		
+		void put(long key, long count) {
+			if (2 * (size + 1) > keys.length)
+				grow();
+			int mask = keys.length - 1;
+			int i = hash(key) & mask;
+			while (keys[i] != -1 && keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+			if (keys[i] == -1) size++;
+			keys[i] = key;
+			counts[i] = count;
+		}
+		
+		private void grow() {
+			long[] oldKeys = keys, oldCounts = counts;
+			keys = new long[oldKeys.length * 2];
+			counts = new long[oldKeys.length * 2];
+			Arrays.fill(keys, -1);
+			size = 0;
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != -1)
+					put(oldKeys[i], oldCounts[i]);
+			}
+		}
+		
+		private static int hash(long key) {
+			long h = key * 0x9e3779b97f4a7c15L;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
@@ -1,6 +1,6 @@
 package cluedo.game;
 
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 
 /**
  * Allows Card to represent any of the GamePiece classes - Character, Room or Weapon.
@@ -16,5 +16,11 @@ public interface GamePiece {
 	 */
 	public String name();
 	
-	public ImageIcon icon(String mod);
+	/**
+	 * Returns one of the images of this GamePiece.
+	 * 
+	 * @param variant	which image to return
+	 * @return			the image, or null if this GamePiece has no such image
+	 */
+	public Icon icon(IconVariant variant);
 }
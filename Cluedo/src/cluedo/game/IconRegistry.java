@@ -0,0 +1,71 @@
+package cluedo.game;
+
+import java.net.URL;
+
+import javax.swing.Icon;
+
+/**
+ * Holds every image of one kind of GamePiece, indexed by the ordinal of the
+ * piece's name and by IconVariant, so that looking an image up is just an
+ * array access. Images which are in the board's SpriteAtlas are drawn from
+ * there. Of the rest, the large card pictures are only loaded once they are
+ * needed, and are kept in CardArtCache.LARGE rather than here, while the
+ * others start loading in the background straight away (see ImageAsset).
+ * 
+ * @author Louis Thie
+ */
+final class IconRegistry {
+	// [name ordinal][variant ordinal], null where there is no such image
+	// or where the image is a sprite or a large card picture instead
+	private final ImageAsset[][] icons;
+	private final Icon[][] sprites;
+	private final URL[][] large;
+	
+	/**
+	 * Loads the images of the given pieces. The image of a piece for a variant
+	 * is named after the piece followed by the suffix given for that variant,
+	 * and is either a sprite of SpriteAtlas.BOARD or in img/ next to the given
+	 * class.
+	 * 
+	 * @param owner		the class the images are kept next to
+	 * @param names		the names of the pieces, in order
+	 * @param suffixes	the suffix of each IconVariant, in order, or null if
+	 * 					the pieces have no image for that variant
+	 */
+	IconRegistry(Class<?> owner, Enum<?>[] names, String... suffixes) {
+		icons = new ImageAsset[names.length][IconVariant.values().length];
+		sprites = new Icon[names.length][IconVariant.values().length];
+		large = new URL[names.length][IconVariant.values().length];
+		for (Enum<?> name : names) {
+			for (int v = 0; v < suffixes.length; v++) {
+				if (suffixes[v] == null) continue;
+				sprites[name.ordinal()][v] = SpriteAtlas.BOARD.get(name.name()+suffixes[v]);
+				String path = "img/"+name.name()+suffixes[v]+".png";
+				if (sprites[name.ordinal()][v] != null)
+					continue;
+				else if (v == IconVariant.CARD_LARGE.ordinal())
+					large[name.ordinal()][v] = owner.getResource(path);
+				else
+					icons[name.ordinal()][v] = ImageAsset.sprite(owner, path);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the image of the given piece.
+	 * 
+	 * @param name		the name of the piece
+	 * @param variant	which of its images to return
+	 * @return			the image, or null if the piece has no such image
+	 */
+	Icon get(Enum<?> name, IconVariant variant) {
+		Icon sprite = sprites[name.ordinal()][variant.ordinal()];
+		if (sprite != null)
+			return sprite;
+		URL url = large[name.ordinal()][variant.ordinal()];
+		if (url != null)
+			return CardArtCache.LARGE.get(url);
+		ImageAsset icon = icons[name.ordinal()][variant.ordinal()];
+		return (icon == null)? null : icon.get();
+	}
+}
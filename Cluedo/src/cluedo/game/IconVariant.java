@@ -0,0 +1,34 @@
+package cluedo.game;
+
+/**
+ * The different images each GamePiece may be drawn with. Not every kind of
+ * GamePiece has every variant (see GamePiece.icon).
+ * 
+ * @author Louis Thie
+ */
+public enum IconVariant {
+	/**
+	 * A Weapon lying in a Room.
+	 */
+	PIECE,
+	/**
+	 * A Character standing in a corridor.
+	 */
+	FLOOR,
+	/**
+	 * A Character standing in a Room.
+	 */
+	ROOM,
+	/**
+	 * The small picture on a Card.
+	 */
+	CARD,
+	/**
+	 * The full size picture on a Card, shown when the Card is clicked on.
+	 */
+	CARD_LARGE,
+	/**
+	 * The name of a Room, written across the board.
+	 */
+	NAME
+}
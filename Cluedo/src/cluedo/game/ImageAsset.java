@@ -0,0 +1,92 @@
+package cluedo.game;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * An image which is loaded the first time it is needed, or before then in
+ * the background (see AssetLoader). Small images which the board is drawn
+ * with are started straight away, so they are usually ready by the time the
+ * window appears. (Large ones are loaded on demand by CardArtCache instead.)
+ * 
+ * @author Louis Thie
+ */
+public final class ImageAsset {
+	private final URL url;
+	private final FutureTask<ImageIcon> load;
+	private volatile ImageIcon icon;
+	
+	private ImageAsset(final URL url) {
+		this.url = url;
+		load = new FutureTask<ImageIcon>(new Callable<ImageIcon>() {
+			public ImageIcon call() throws IOException {
+				// ImageIO decodes on the calling thread, unlike ImageIcon(URL)
+				// which queues every image through a single MediaTracker
+				ImageIcon loaded = new ImageIcon(ImageIO.read(url));
+				AssetLoader.loaded();
+				return loaded;
+			}
+		});
+		AssetLoader.requested();
+	}
+	
+	/**
+	 * Returns a small image, which starts loading in the background now.
+	 * 
+	 * @param owner		the class the image is kept next to
+	 * @param path		the path of the image, relative to owner
+	 * @return			the image
+	 */
+	public static ImageAsset sprite(Class<?> owner, String path) {
+		ImageAsset asset = new ImageAsset(owner.getResource(path));
+		AssetLoader.preload(asset.load);
+		return asset;
+	}
+	
+	/**
+	 * Returns the image, waiting for it to be loaded if it has not been yet.
+	 * 
+	 * @return	the image
+	 */
+	public ImageIcon get() {
+		ImageIcon i = icon;
+		if (i == null) {
+			i = icon = await();
+		}
+		return i;
+	}
+	
+	/**
+	 * Returns whether the image has been loaded yet.
+	 * 
+	 * @return	whether get() would return straight away
+	 */
+	public boolean isLoaded() {
+		return load.isDone();
+	}
+	
+	private ImageIcon await() {
+		load.run();	// does nothing if it has already been started elsewhere
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return load.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Could not load "+url, e.getCause());
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package cluedo.game;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents the players playing Cluedo.
@@ -11,6 +13,8 @@ import java.util.ArrayList;
 public class Player {
 	private String name;
 	private ArrayList<Card> hand;
+	private List<Card> handView;
+	private int handMask = 0;
 	private Character character;
 	private boolean isAlive = true;
 	
@@ -22,6 +26,7 @@ public class Player {
 	public Player(String name) {
 		this.name = name;
 		hand = new ArrayList<Card>();
+		handView = Collections.unmodifiableList(hand);
 	}
 	
 	/**
@@ -49,15 +54,37 @@ public class Player {
 	 */
 	public void deal(Card c) {
 		hand.add(c);
+		handMask |= c.bit();
 	}
 	
 	/**
-	 * Returns the hand of this Player.
+	 * Returns the hand of this Player. This is a read-only view rather than a
+	 * copy, so it always shows the cards dealt so far.
 	 * 
 	 * @return	the Cards this Player has
 	 */
-	public Card[] hand() {
-		return hand.toArray(new Card[hand.size()]);
+	public List<Card> hand() {
+		return handView;
+	}
+	
+	/**
+	 * Returns the hand of this Player as a bitmask of Card ids.
+	 * 
+	 * @return	the bits of the Cards this Player has
+	 */
+	public int handMask() {
+		return handMask;
+	}
+	
+	/**
+	 * Returns whether this Player holds any of the given cards, such as the
+	 * three of a suggestion (see Card.mask).
+	 * 
+	 * @param cards		a bitmask of Card ids
+	 * @return			whether this Player could refute them
+	 */
+	public boolean canRefute(int cards) {
+		return (handMask & cards) != 0;
 	}
 	
 	/**
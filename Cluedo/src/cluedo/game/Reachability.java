@@ -0,0 +1,219 @@
+package cluedo.game;
+
+import java.util.Arrays;
+
+/**
+ * Works out every square and every Room a Character could get to with a given
+ * number of moves, following the same rules as Board.move, Board.exitRoom and
+ * Board.takePassage: other Characters block the way, Rooms can only be entered
+ * through their doors, and the Room a turn started in cannot be re-entered.
+ * 
+ * The squares are kept as a BitBoard, and the Rooms as a bitmask over
+ * Room.toInt(). The search spreads out one move at a time across whole words
+ * of the BitBoards, and all the buffers are reused from one query to the next,
+ * so a query allocates nothing; as a result, a Reachability must not be used
+ * by more than one thread at a time.
+ * 
+ * A query can also be split in two, so that the search need not hold up the
+ * thread the game is played on: capture copies where everything is on the
+ * Board, and compute(moves) then searches that copy, on any thread.
+ * 
+ * @author Louis Thie
+ */
+public class Reachability {
+	private static final int ROOMS = Room.RoomName.values().length;
+	
+	private final Board board;
+	private final BoardTopology topology;
+	
+	// where everything was when the query was captured
+	private final BitBoard free = new BitBoard();
+	private Room location;
+	private int start;
+	private Room origin;
+	
+	private final BitBoard reached = new BitBoard();
+	private final BitBoard visited = new BitBoard();
+	private BitBoard frontier = new BitBoard();
+	private BitBoard next = new BitBoard();
+	private final byte[] dist = new byte[BitBoard.SQUARES];
+	private int rooms;
+	
+	/**
+	 * Constructs a Reachability for the given Board, with empty results.
+	 * 
+	 * @param board		the Board to answer queries about
+	 */
+	public Reachability(Board board) {
+		this.board = board;
+		this.topology = board.getTopology();
+	}
+	
+	/**
+	 * Works out where the given Character can get to with the given number of
+	 * moves, replacing the results of the previous query.
+	 * 
+	 * @param c			the Character to move
+	 * @param moves		the number of moves, such as Board.getDiceRoll()
+	 */
+	public void compute(Character c, int moves) {
+		capture(c);
+		compute(moves);
+	}
+	
+	/**
+	 * Copies where the given Character is, which squares are free, and which
+	 * Room the turn started in, ready for compute(moves). This must be called
+	 * on the thread the game is played on.
+	 * 
+	 * @param c		the Character to move
+	 */
+	public void capture(Character c) {
+		free.copyFrom(topology.corridors());
+		free.andNot(board.occupied());
+		location = c.location();
+		start = (location == null)? Board.square(c.getRow(), c.getCol()) : -1;
+		origin = board.origin();
+	}
+	
+	/**
+	 * Leaves out of the captured query every square which the given earlier
+	 * query did not get to. After a Character has moved part of the way
+	 * towards somewhere, everywhere it can still get to with the moves it has
+	 * left is somewhere it could get to before, so the search can be kept to
+	 * those squares.
+	 * 
+	 * @param earlier	a query for the same Character, from where it was
+	 * 					earlier in the same turn
+	 */
+	public void limitTo(Reachability earlier) {
+		free.and(earlier.visited);	// which includes the square it started on
+	}
+	
+	/**
+	 * Works out where the Character last captured can get to with the given
+	 * number of moves, replacing the results of the previous query. Only this
+	 * Reachability's own copy of the Board is used, so this may be called on
+	 * any thread, as long as no other thread is using this Reachability.
+	 * 
+	 * @param moves		the number of moves, such as Board.getDiceRoll()
+	 */
+	public void compute(int moves) {
+		reached.clear();
+		frontier.clear();
+		visited.clear();
+		Arrays.fill(dist, (byte) -1);
+		rooms = 0;
+		if (moves <= 0) return;
+		
+		int step;
+		Room r = location;
+		if (r != null) {
+			// leaving through a door takes a move; a passageway takes all of them
+			if (r.hasConnection())
+				rooms |= 1 << r.connection().toInt();
+			frontier.copyFrom(topology.entrances(r.toInt()));
+			frontier.and(free);
+			reached.copyFrom(frontier);
+			step = 1;
+		} else {
+			frontier.set(start);
+			step = 0;
+		}
+		visited.copyFrom(frontier);
+		record(frontier, step);
+		
+		while (step < moves && !frontier.isEmpty()) {
+			// one more move takes the Character into any Room it is outside the door of
+			for (int i = 0; i < ROOMS; i++) {
+				if (frontier.intersects(topology.entrances(i)))
+					rooms |= 1 << i;
+			}
+			
+			frontier.neighboursInto(next);
+			next.and(free);
+			next.andNot(visited);
+			step++;
+			
+			visited.or(next);
+			reached.or(next);
+			record(next, step);
+			
+			BitBoard swap = frontier;
+			frontier = next;
+			next = swap;
+		}
+		
+		if (origin != null)
+			rooms &= ~(1 << origin.toInt());
+	}
+	
+	private void record(BitBoard squares, int step) {
+		for (int square = squares.nextSetBit(0); square >= 0; square = squares.nextSetBit(square+1)) {
+			dist[square] = (byte) step;
+		}
+	}
+	
+	/**
+	 * Returns whether the given square could be reached in the last query.
+	 * The square the Character is standing on is not included.
+	 * 
+	 * @param row	the row of the square
+	 * @param col	the column of the square
+	 * @return		whether the square is reachable
+	 */
+	public boolean canReach(int row, int col) {
+		return reached.get(Board.square(row, col));
+	}
+	
+	/**
+	 * Returns whether the given Room could be entered in the last query.
+	 * 
+	 * @param r		the Room to check
+	 * @return		whether the Room is reachable
+	 */
+	public boolean canEnter(Room r) {
+		return (rooms & (1 << r.toInt())) != 0;
+	}
+	
+	/**
+	 * Returns the fewest moves needed to reach the given square in the last
+	 * query, or -1 if it could not be reached.
+	 * 
+	 * @param row	the row of the square
+	 * @param col	the column of the square
+	 * @return		the number of moves
+	 */
+	public int movesTo(int row, int col) {
+		return dist[Board.square(row, col)];
+	}
+	
+	/**
+	 * Returns the squares reached in the last query. This is the live buffer,
+	 * which the next query overwrites, so it must not be modified.
+	 * 
+	 * @return	the reachable squares
+	 */
+	public BitBoard squares() {
+		return reached;
+	}
+	
+	/**
+	 * Returns the bitmask of Rooms reached in the last query, indexed by
+	 * Room.toInt().
+	 * 
+	 * @return	the reachable Rooms
+	 */
+	public int rooms() {
+		return rooms;
+	}
+	
+	/**
+	 * Returns how many squares were reached in the last query.
+	 * 
+	 * @return	the number of reachable squares
+	 */
+	public int squareCount() {
+		return reached.count();
+	}
+}
@@ -2,7 +2,7 @@ package cluedo.game;
 
 import java.util.ArrayList;
 
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 
 /**
  * Represents the rooms of a Cluedo game, and stores all
@@ -29,33 +29,13 @@ public class Room implements GamePiece {
 		STUDY;
 
 		// room images downloaded from http://happywithgame.com/wp-content/uploads/2015/08/clue-game-cards-rooms.jpg
-		private static ImageIcon KITCHEN_name_icon = new ImageIcon(Room.class.getResource("img/KITCHEN_name.png"));
-		private static ImageIcon KITCHEN_card_icon = new ImageIcon(Room.class.getResource("img/KITCHEN.png"));
-		private static ImageIcon KITCHEN_card_large_icon = new ImageIcon(Room.class.getResource("img/KITCHEN_large.png"));
-		private static ImageIcon BALLROOM_name_icon = new ImageIcon(Room.class.getResource("img/BALLROOM_name.png"));
-		private static ImageIcon BALLROOM_card_icon = new ImageIcon(Room.class.getResource("img/BALLROOM.png"));
-		private static ImageIcon BALLROOM_card_large_icon = new ImageIcon(Room.class.getResource("img/BALLROOM_large.png"));
-		private static ImageIcon CONSERVATORY_name_icon = new ImageIcon(Room.class.getResource("img/CONSERVATORY_name.png"));
-		private static ImageIcon CONSERVATORY_card_icon = new ImageIcon(Room.class.getResource("img/CONSERVATORY.png"));
-		private static ImageIcon CONSERVATORY_card_large_icon = new ImageIcon(Room.class.getResource("img/CONSERVATORY_large.png"));
-		private static ImageIcon BILLIARD_ROOM_name_icon = new ImageIcon(Room.class.getResource("img/BILLIARD_ROOM_name.png"));
-		private static ImageIcon BILLIARD_ROOM_card_icon = new ImageIcon(Room.class.getResource("img/BILLIARD_ROOM.png"));
-		private static ImageIcon BILLIARD_ROOM_card_large_icon = new ImageIcon(Room.class.getResource("img/BILLIARD_ROOM_large.png"));
-		private static ImageIcon DINING_ROOM_name_icon = new ImageIcon(Room.class.getResource("img/DINING_ROOM_name.png"));
-		private static ImageIcon DINING_ROOM_card_icon = new ImageIcon(Room.class.getResource("img/DINING_ROOM.png"));
-		private static ImageIcon DINING_ROOM_card_large_icon = new ImageIcon(Room.class.getResource("img/DINING_ROOM_large.png"));
-		private static ImageIcon LIBRARY_name_icon = new ImageIcon(Room.class.getResource("img/LIBRARY_name.png"));
-		private static ImageIcon LIBRARY_card_icon = new ImageIcon(Room.class.getResource("img/LIBRARY.png"));
-		private static ImageIcon LIBRARY_card_large_icon = new ImageIcon(Room.class.getResource("img/LIBRARY_large.png"));
-		private static ImageIcon HALL_name_icon = new ImageIcon(Room.class.getResource("img/HALL_name.png"));
-		private static ImageIcon HALL_card_icon = new ImageIcon(Room.class.getResource("img/HALL.png"));
-		private static ImageIcon HALL_card_large_icon = new ImageIcon(Room.class.getResource("img/HALL_large.png"));
-		private static ImageIcon LOUNGE_name_icon = new ImageIcon(Room.class.getResource("img/LOUNGE_name.png"));
-		private static ImageIcon LOUNGE_card_icon = new ImageIcon(Room.class.getResource("img/LOUNGE.png"));
-		private static ImageIcon LOUNGE_card_large_icon = new ImageIcon(Room.class.getResource("img/LOUNGE_large.png"));
-		private static ImageIcon STUDY_name_icon = new ImageIcon(Room.class.getResource("img/STUDY_name.png"));
-		private static ImageIcon STUDY_card_icon = new ImageIcon(Room.class.getResource("img/STUDY.png"));
-		private static ImageIcon STUDY_card_large_icon = new ImageIcon(Room.class.getResource("img/STUDY_large.png"));
+		// indexed by IconVariant: PIECE, FLOOR, ROOM, CARD, CARD_LARGE, NAME
+		// (only loaded once an image is first asked for, so games without a
+		// window never load any)
+		private static final class Icons {
+			static final IconRegistry REGISTRY = new IconRegistry(Room.class, values(),
+					null, null, null, "", "_large", "_name");
+		}
 		
 		/**
 		 * Returns a human-friendly version of the name of this RoomName.
@@ -83,11 +63,14 @@ public class Room implements GamePiece {
 			return new String(name);
 		}
 
-		public ImageIcon icon(String mod) {
-			try {
-				return (ImageIcon) getClass().getDeclaredField(name()+mod+"_icon").get(this);
-			} catch (NoSuchFieldException | SecurityException | IllegalAccessException e) {}
-			return null;
+		/**
+		 * Returns one of the images of the Room with this name.
+		 * 
+		 * @param variant	which image to return
+		 * @return			the image, or null if there is no such image
+		 */
+		public Icon icon(IconVariant variant) {
+			return Icons.REGISTRY.get(this, variant);
 		}
 	}
 	
@@ -96,15 +79,12 @@ public class Room implements GamePiece {
 	private ArrayList<Weapon> weapons;
 	private Room connection;
 	
-	private int nameRow, nameWidth;
-	private int row, col;
-	private int charRow, charCol;
-	private int wepRow, wepCol;
-	private int[][] layout;
+	// where this Room is on the board, which is the same in every game
+	private final Layout layout;
 	
 	/**
-	 * Constructs a Room with the given name. Assigns fields
-	 * depending on which name is given.
+	 * Constructs a Room with the given name, laid out on the board
+	 * according to its name.
 	 * 
 	 * @param name	the name of this Room
 	 */
@@ -113,7 +93,7 @@ public class Room implements GamePiece {
 		characters = new ArrayList<Character>();
 		weapons = new ArrayList<Weapon>();
 		
-		assignFields();
+		layout = LAYOUTS[name.ordinal()];
 	}
 	
 	/**
@@ -161,8 +141,8 @@ public class Room implements GamePiece {
 		
 		// doesn't matter if the characters are all stacked on top of each other
 		// also, all of the rooms have a '1' at (relative) (1,1)
-		c.setRow(row+1);
-		c.setCol(col+1);
+		c.setRow(layout.row+1);
+		c.setCol(layout.col+1);
 	}
 	
 	/**
@@ -250,10 +230,11 @@ public class Room implements GamePiece {
 	 * @return			whether or not it is possible to enter this Room like this
 	 */
 	public boolean canEnter(int fromRow, int fromCol, int toRow, int toCol) {
-		int fRow = fromRow - row;
-		int fCol = fromCol - col;
-		int tRow = toRow - row;
-		int tCol = toCol - col;
+		int[][] layout = this.layout.grid;
+		int fRow = fromRow - this.layout.row;
+		int fCol = fromCol - this.layout.col;
+		int tRow = toRow - this.layout.row;
+		int tCol = toCol - this.layout.col;
 		
 		if (fRow != tRow) {
 			if (layout[tRow][tCol] <= 1) {
@@ -284,6 +265,7 @@ public class Room implements GamePiece {
 	 * @return		whether there is a door in that Direction
 	 */
 	public boolean canLeave(Board.Direction d) {
+		int[][] layout = this.layout.grid;
 		switch (d) {
 		case UP:
 			for (int i = 0; i < layout[0].length; i++)
@@ -309,38 +291,40 @@ public class Room implements GamePiece {
 	}
 	
 	public boolean exitToPoint(Character c, int row, int col) {
+		int[][] layout = this.layout.grid;
+		row -= this.layout.row;
+		col -= this.layout.col;
 		if (characters.contains(c)) {
 			// square would be one *outside* of the layout array
 			
-			if (col-this.col >= 0 && col-this.col < layout[0].length) {
+			if (col >= 0 && col < layout[0].length) {
 				// col is within bounds
-				if (row-this.row == -1) {
+				if (row == -1) {
 					// trying to go up
-					if (layout[row-this.row+1][col-this.col] == UP) {
+					if (layout[row+1][col] == UP) {
 						return true;
 					}
-				} else if (row-this.row == layout.length) {
+				} else if (row == layout.length) {
 					// trying to go down
-					if (layout[row-this.row-1][col-this.col] == DOWN) {
+					if (layout[row-1][col] == DOWN) {
 						return true;
 					}
-				} else if (row-this.row == layout.length - 1) {
+				} else if (row == layout.length - 1) {
 					// trying to go down (special case for Conservatory)
-					if (layout[row-this.row-1][col-this.col] == DOWN) {
+					if (layout[row-1][col] == DOWN) {
 						return true;
 					}
 				}
-			} else if (row-this.row >= 0 && row-this.row < layout.length) {
-				System.out.println("horizontal");
+			} else if (row >= 0 && row < layout.length) {
 				// row is within bounds
-				if (col-this.col == -1) {
+				if (col == -1) {
 					// trying to go left
-					if (layout[row-this.row][col-this.col+1] == LEFT) {
+					if (layout[row][col+1] == LEFT) {
 						return true;
 					}
-				} else if (col-this.col == layout[0].length) {
+				} else if (col == layout[0].length) {
 					// trying to go right
-					if (layout[row-this.row][col-this.col-1] == RIGHT) {
+					if (layout[row][col-1] == RIGHT) {
 						return true;
 					}
 				}
@@ -350,6 +334,29 @@ public class Room implements GamePiece {
 		return false;
 	}
 	
+	/**
+	 * Returns the squares just outside each of this Room's doors, which are
+	 * the squares a Character can leave this Room onto (see exitToPoint) and
+	 * the squares it must come from to enter this Room (see canEnter).
+	 * The array is shared, so it must not be modified.
+	 * 
+	 * @return	array of {row, column} pairs, one for each door
+	 */
+	public int[][] getExits() {
+		return layout.exits;
+	}
+	
+	/**
+	 * Returns the squares just outside each of the doors of the Room with the
+	 * given name (see getExits).
+	 * 
+	 * @param name	the name of the Room
+	 * @return		array of {row, column} pairs, one for each door
+	 */
+	static int[][] exitsOf(RoomName name) {
+		return LAYOUTS[name.ordinal()].exits;
+	}
+	
 	/**
 	 * Checks whether or not this Room contains anything which would
 	 * require to be printed at the given position.
@@ -359,6 +366,8 @@ public class Room implements GamePiece {
 	 * @return				Whether or not something should be printed here
 	 */
 	public boolean hasChar(int row, int charCount) {
+		int charRow = layout.charRow, charCol = layout.charCol;
+		int wepRow = layout.wepRow, wepCol = layout.wepCol;
 		if (row == charRow) {
 			for (int i = 0; i < characters.size(); i++) {
 				if (charCount == charCol+i && characters.get(i).player() != null && characters.get(i).player().isAlive()) {
@@ -386,6 +395,8 @@ public class Room implements GamePiece {
 	 */
 	public char getChar(int row, int charCount, Board board) {
 		ArrayList<Player> playerList = board.getPlayers();
+		int charRow = layout.charRow, charCol = layout.charCol;
+		int wepRow = layout.wepRow, wepCol = layout.wepCol;
 		if (row == charRow) {
 			for (int i = 0; i < characters.size(); i++) {
 				if (charCount == charCol+i && characters.get(i).player() != null) {
@@ -402,138 +413,129 @@ public class Room implements GamePiece {
 		return ' ';
 	}
 	
-	public ImageIcon getIcon(int row, int col) {
-		if (row == nameRow) {
-			return name.icon("_name");
-		} else if (layout[row-this.row][col-this.col] >= 10) {
-			int door = layout[row-this.row][col-this.col];
-			switch (door) {
-			case UP:
-				return door_up;
-			case RIGHT:
-				return door_right;
-			case DOWN:
-				return door_down;
-			case LEFT:
-				return door_left;
-			}
-		} else if (row == charRow) {
-			int actual = col-charCol;	// translate from board ordinate
+	/**
+	 * Returns the image drawn on the given square of this room: one of its
+	 * fixed images if there is one there, otherwise the piece standing there.
+	 * 
+	 * @param row	the row of the square on the board
+	 * @param col	the column of the square on the board
+	 * @return		the image, or null if the square is plain floor
+	 */
+	public Icon getIcon(int row, int col) {
+		Icon icon = getFixedIcon(row, col);
+		return (icon == null)? getPieceIcon(row, col) : icon;
+	}
+	
+	/**
+	 * Returns the part of this room drawn on the given square which never
+	 * changes during a game: its name, or a door.
+	 * 
+	 * @param row	the row of the square on the board
+	 * @param col	the column of the square on the board
+	 * @return		the image, or null if the square has neither
+	 */
+	public Icon getFixedIcon(int row, int col) {
+		if (row == layout.nameRow) {
+			return name.icon(IconVariant.NAME);
+		}
+		switch (layout.grid[row-layout.row][col-layout.col]) {
+		case UP:
+			return DoorIcons.UP;
+		case RIGHT:
+			return DoorIcons.RIGHT;
+		case DOWN:
+			return DoorIcons.DOWN;
+		case LEFT:
+			return DoorIcons.LEFT;
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the character or weapon drawn on the given square of this room.
+	 * Squares which have a fixed image (see getFixedIcon) never show a piece.
+	 * 
+	 * @param row	the row of the square on the board
+	 * @param col	the column of the square on the board
+	 * @return		the image of the piece, or null if there is none there
+	 */
+	public Icon getPieceIcon(int row, int col) {
+		if (row == layout.nameRow || layout.grid[row-layout.row][col-layout.col] >= 10) {
+			return null;
+		} else if (row == layout.charRow) {
+			int actual = col-layout.charCol;	// translate from board ordinate
 			if (actual >= 0 && actual < characters.size()) {
-				return characters.get(actual).icon("_room");
+				return characters.get(actual).icon(IconVariant.ROOM);
 			}
-		} else if (row == wepRow) {
-			int actual = col-wepCol;
+		} else if (row == layout.wepRow) {
+			int actual = col-layout.wepCol;
 			if (actual >= 0 && actual < weapons.size()) {
-				return weapons.get(actual).icon("");
+				return weapons.get(actual).icon(IconVariant.PIECE);
 			}
 		}
 		return null;
 	}
 	
 	public int getNameWidth() {
-		return nameWidth;
+		return layout.nameWidth;
 	}
 	
 	
-	private void assignFields() {
-		if (name.equals(RoomName.BALLROOM)) {
-			nameRow = ballroomNameRow;
-			nameWidth = ballroomNameWidth;
-			row = ballroomRow;
-			col = ballroomCol;
-			charRow = ballroomCharRow;
-			charCol = ballroomCharCol;
-			wepRow = ballroomWepRow;
-			wepCol = ballroomWepCol;
-			layout = ballroom;
-		} else if (name.equals(RoomName.BILLIARD_ROOM)) {
-			nameRow = billiardNameRow;
-			nameWidth = billiardNameWidth;
-			row = billiardRow;
-			col = billiardCol;
-			charRow = billiardCharRow;
-			charCol = billiardCharCol;
-			wepRow = billiardWepRow;
-			wepCol = billiardWepCol;
-			layout = billiard;
-		} else if (name.equals(RoomName.CONSERVATORY)) {
-			nameRow = conservatoryNameRow;
-			nameWidth = conservatoryNameWidth;
-			row = conservatoryRow;
-			col = conservatoryCol;
-			charRow = conservatoryCharRow;
-			charCol = conservatoryCharCol;
-			wepRow = conservatoryWepRow;
-			wepCol = conservatoryWepCol;
-			layout = conservatory;
-		} else if (name.equals(RoomName.DINING_ROOM)) {
-			nameRow = diningNameRow;
-			nameWidth = diningNameWidth;
-			row = diningRow;
-			col = diningCol;
-			charRow = diningCharRow;
-			charCol = diningCharCol;
-			wepRow = diningWepRow;
-			wepCol = diningWepCol;
-			layout = dining;
-		} else if (name.equals(RoomName.HALL)) {
-			nameRow = hallNameRow;
-			nameWidth = hallNameWidth;
-			row = hallRow;
-			col = hallCol;
-			charRow = hallCharRow;
-			charCol = hallCharCol;
-			wepRow = hallWepRow;
-			wepCol = hallWepCol;
-			layout = hall;
-		} else if (name.equals(RoomName.KITCHEN)) {
-			nameRow = kitchenNameRow;
-			nameWidth = kitchenNameWidth;
-			row = kitchenRow;
-			col = kitchenCol;
-			charRow = kitchenCharRow;
-			charCol = kitchenCharCol;
-			wepRow = kitchenWepRow;
-			wepCol = kitchenWepCol;
-			layout = kitchen;
-		} else if (name.equals(RoomName.LIBRARY)) {
-			nameRow = libraryNameRow;
-			nameWidth = libraryNameWidth;
-			row = libraryRow;
-			col = libraryCol;
-			charRow = libraryCharRow;
-			charCol = libraryCharCol;
-			wepRow = libraryWepRow;
-			wepCol = libraryWepCol;
-			layout = library;
-		} else if (name.equals(RoomName.LOUNGE)) {
-			nameRow = loungeNameRow;
-			nameWidth = loungeNameWidth;
-			row = loungeRow;
-			col = loungeCol;
-			charRow = loungeCharRow;
-			charCol = loungeCharCol;
-			wepRow = loungeWepRow;
-			wepCol = loungeWepCol;
-			layout = lounge;
-		} else if (name.equals(RoomName.STUDY)) {
-			nameRow = studyNameRow;
-			nameWidth = studyNameWidth;
-			row = studyRow;
-			col = studyCol;
-			charRow = studyCharRow;
-			charCol = studyCharCol;
-			wepRow = studyWepRow;
-			wepCol = studyWepCol;
-			layout = study;
+	/**
+	 * Where a Room is on the board. There is one Layout for each RoomName,
+	 * shared by the Rooms of every game.
+	 */
+	private static final class Layout {
+		final int nameRow, nameWidth;
+		final int row, col;
+		final int charRow, charCol;
+		final int wepRow, wepCol;
+		final int[][] grid;
+		// the squares just outside the doors, see getExits
+		final int[][] exits;
+		
+		Layout(int nameRow, int nameWidth, int row, int col, int charRow, int charCol,
+				int wepRow, int wepCol, int[][] grid) {
+			this.nameRow = nameRow;
+			this.nameWidth = nameWidth;
+			this.row = row;
+			this.col = col;
+			this.charRow = charRow;
+			this.charCol = charCol;
+			this.wepRow = wepRow;
+			this.wepCol = wepCol;
+			this.grid = grid;
+			
+			ArrayList<int[]> found = new ArrayList<int[]>();
+			for (int i = 0; i < grid.length; i++) {
+				for (int j = 0; j < grid[i].length; j++) {
+					switch (grid[i][j]) {
+					case UP:
+						found.add(new int[]{row+i-1, col+j});
+						break;
+					case RIGHT:
+						found.add(new int[]{row+i, col+j+1});
+						break;
+					case DOWN:
+						found.add(new int[]{row+i+1, col+j});
+						break;
+					case LEFT:
+						found.add(new int[]{row+i, col+j-1});
+						break;
+					}
+				}
+			}
+			exits = found.toArray(new int[found.size()][]);
 		}
 	}
 
-	private static ImageIcon door_up = new ImageIcon(Room.class.getResource("img/room_door_up.png"));
-	private static ImageIcon door_right = new ImageIcon(Room.class.getResource("img/room_door_right.png"));
-	private static ImageIcon door_down = new ImageIcon(Room.class.getResource("img/room_door_down.png"));
-	private static ImageIcon door_left = new ImageIcon(Room.class.getResource("img/room_door_left.png"));
+	// only loaded once a door is first drawn, so games without a window never load them
+	private static final class DoorIcons {
+		static final Icon UP = SpriteAtlas.BOARD.get("room_door_up");
+		static final Icon RIGHT = SpriteAtlas.BOARD.get("room_door_right");
+		static final Icon DOWN = SpriteAtlas.BOARD.get("room_door_down");
+		static final Icon LEFT = SpriteAtlas.BOARD.get("room_door_left");
+	}
 	
 	// Room coordinates and layouts
 	//==============================
@@ -683,7 +685,29 @@ public class Room implements GamePiece {
 			{0, 1, 1, 1, 1, 1, 1}
 	};
 	
-	public ImageIcon icon(String mod) {
-		return name.icon(mod);
+	// indexed by RoomName.ordinal()
+	private static final Layout[] LAYOUTS = {
+			new Layout(kitchenNameRow, kitchenNameWidth, kitchenRow, kitchenCol,
+					kitchenCharRow, kitchenCharCol, kitchenWepRow, kitchenWepCol, kitchen),
+			new Layout(ballroomNameRow, ballroomNameWidth, ballroomRow, ballroomCol,
+					ballroomCharRow, ballroomCharCol, ballroomWepRow, ballroomWepCol, ballroom),
+			new Layout(conservatoryNameRow, conservatoryNameWidth, conservatoryRow, conservatoryCol,
+					conservatoryCharRow, conservatoryCharCol, conservatoryWepRow, conservatoryWepCol, conservatory),
+			new Layout(billiardNameRow, billiardNameWidth, billiardRow, billiardCol,
+					billiardCharRow, billiardCharCol, billiardWepRow, billiardWepCol, billiard),
+			new Layout(diningNameRow, diningNameWidth, diningRow, diningCol,
+					diningCharRow, diningCharCol, diningWepRow, diningWepCol, dining),
+			new Layout(libraryNameRow, libraryNameWidth, libraryRow, libraryCol,
+					libraryCharRow, libraryCharCol, libraryWepRow, libraryWepCol, library),
+			new Layout(hallNameRow, hallNameWidth, hallRow, hallCol,
+					hallCharRow, hallCharCol, hallWepRow, hallWepCol, hall),
+			new Layout(loungeNameRow, loungeNameWidth, loungeRow, loungeCol,
+					loungeCharRow, loungeCharCol, loungeWepRow, loungeWepCol, lounge),
+			new Layout(studyNameRow, studyNameWidth, studyRow, studyCol,
+					studyCharRow, studyCharCol, studyWepRow, studyWepCol, study)
+	};
+	
+	public Icon icon(IconVariant variant) {
+		return name.icon(variant);
 	}
 }
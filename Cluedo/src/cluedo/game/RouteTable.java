@@ -0,0 +1,123 @@
+package cluedo.game;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed shortest routes between every pair of corridor squares of the
+ * board: how many steps apart they are, and which way to take the first step
+ * from one towards the other. A whole route is walked by looking up one step
+ * at a time, so no search is needed while a turn is being played.
+ * 
+ * Like DistanceOracle, this does not take other Characters into account, and
+ * a single RouteTable is shared by every Board (see BoardTopology.getRoutes).
+ * 
+ * @author Louis Thie
+ */
+public class RouteTable {
+	/**
+	 * Returned when one square cannot be reached from the other.
+	 */
+	public static final int UNREACHABLE = -1;
+	
+	private static final Board.Direction[] DIRECTIONS = Board.Direction.values();
+	
+	// square -> its number among the corridor squares, or -1
+	private final int[] index = new int[BitBoard.SQUARES];
+	private final int count;
+	
+	// [to * count + from] -> steps between the squares, or -1
+	private final byte[] dist;
+	// [to * count + from] -> Direction.ordinal() of the first step, or -1
+	private final byte[] next;
+	
+	/**
+	 * Builds the route tables for the given board.
+	 * 
+	 * @param topology	the squares of the board
+	 */
+	RouteTable(BoardTopology topology) {
+		BitBoard corridors = topology.corridors();
+		int[] squares = new int[corridors.count()];
+		Arrays.fill(index, -1);
+		int n = 0;
+		for (int square = corridors.nextSetBit(0); square >= 0; square = corridors.nextSetBit(square+1)) {
+			index[square] = n;
+			squares[n++] = square;
+		}
+		count = n;
+		dist = new byte[count * count];
+		next = new byte[count * count];
+		Arrays.fill(dist, (byte) UNREACHABLE);
+		Arrays.fill(next, (byte) -1);
+		
+		int[] queue = new int[count];
+		for (int to = 0; to < count; to++) {
+			// breadth-first search outwards from the target; each square's
+			// first step is back towards the square it was found from
+			int row = to * count;
+			dist[row + to] = 0;
+			int head = 0, tail = 0;
+			queue[tail++] = squares[to];
+			while (head < tail) {
+				int square = queue[head++];
+				int r = square / Board.COLS, c = square % Board.COLS;
+				for (Board.Direction d : DIRECTIONS) {
+					int nr = r - d.rowStep(), nc = c - d.colStep();
+					if (nr < 0 || nr >= Board.ROWS || nc < 0 || nc >= Board.COLS)
+						continue;
+					int from = index[Board.square(nr, nc)];
+					if (from < 0 || dist[row + from] != UNREACHABLE)
+						continue;
+					dist[row + from] = (byte) (dist[row + index[square]] + 1);
+					next[row + from] = (byte) d.ordinal();
+					queue[tail++] = Board.square(nr, nc);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns how many steps apart two corridor squares are.
+	 * 
+	 * @param from	the number of the square to start on (see Board.square)
+	 * @param to	the number of the square to get to
+	 * @return		the number of steps, or UNREACHABLE if either is not a corridor
+	 */
+	public int steps(int from, int to) {
+		int f = index[from], t = index[to];
+		if (f < 0 || t < 0)
+			return UNREACHABLE;
+		return dist[t * count + f];
+	}
+	
+	/**
+	 * Returns which way to take the first step of the shortest route from one
+	 * corridor square to another.
+	 * 
+	 * @param from	the number of the square to start on (see Board.square)
+	 * @param to	the number of the square to get to
+	 * @return		the Direction to step in, or null if the squares are the
+	 * 				same or there is no route between them
+	 */
+	public Board.Direction nextStep(int from, int to) {
+		int f = index[from], t = index[to];
+		if (f < 0 || t < 0)
+			return null;
+		int d = next[t * count + f];
+		return (d < 0)? null : DIRECTIONS[d];
+	}
+	
+	/**
+	 * Returns the square one step along the shortest route from one corridor
+	 * square to another.
+	 * 
+	 * @param from	the number of the square to start on (see Board.square)
+	 * @param to	the number of the square to get to
+	 * @return		the number of the next square, or -1 if the squares are
+	 * 				the same or there is no route between them
+	 */
+	public int nextSquare(int from, int to) {
+		Board.Direction d = nextStep(from, to);
+		return (d == null)? -1 : from + d.rowStep() * Board.COLS + d.colStep();
+	}
+}
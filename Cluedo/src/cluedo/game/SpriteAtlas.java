@@ -0,0 +1,156 @@
+package cluedo.game;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+
+/**
+ * Many small images packed into a single larger one, so that they can all be
+ * read and decoded at once, and drawn from the same image. Each small image
+ * (a sprite) is a rectangle of the atlas, listed by name in an index file
+ * alongside it: one line of "name x y width height" per sprite.
+ * 
+ * To rebuild an atlas, run SpriteAtlas.Packer with the path to write it to
+ * (without an extension) followed by the images to put into it, which are
+ * then named after their files.
+ * 
+ * @author Louis Thie
+ */
+public final class SpriteAtlas {
+	/**
+	 * The tiles, doors, passageways, tokens and room names the board is
+	 * drawn with.
+	 */
+	public static final SpriteAtlas BOARD = new SpriteAtlas(SpriteAtlas.class, "img/board_atlas");
+	
+	private final ImageAsset sheet;
+	private final HashMap<String, Sprite> sprites = new HashMap<String, Sprite>();
+	
+	private SpriteAtlas(Class<?> owner, String path) {
+		InputStream in = owner.getResourceAsStream(path+".txt");
+		if (in == null)
+			throw new IllegalStateException("Missing sprite index "+path+".txt");
+		
+		try (BufferedReader index = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = index.readLine()) != null) {
+				String[] parts = line.trim().split("\\s+");
+				if (parts.length != 5) continue;	// blank line
+				sprites.put(parts[0], new Sprite(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+						Integer.parseInt(parts[3]), Integer.parseInt(parts[4])));
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not read sprite index "+path+".txt", e);
+		}
+		
+		sheet = ImageAsset.sprite(owner, path+".png");
+	}
+	
+	/**
+	 * Returns the sprite with the given name.
+	 * 
+	 * @param name	the name of the sprite
+	 * @return		the sprite, or null if this atlas has no such sprite
+	 */
+	public Icon get(String name) {
+		return sprites.get(name);
+	}
+	
+	/**
+	 * Returns the whole atlas, waiting for it to be loaded if need be.
+	 * 
+	 * @return	the image every sprite is drawn from
+	 */
+	public Image image() {
+		return sheet.get().getImage();
+	}
+	
+	/**
+	 * One rectangle of the atlas.
+	 */
+	private final class Sprite implements Icon {
+		private final int x, y, width, height;
+		
+		Sprite(int x, int y, int width, int height) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+		
+		public void paintIcon(Component c, Graphics g, int dx, int dy) {
+			g.drawImage(image(), dx, dy, dx+width, dy+height, x, y, x+width, y+height, c);
+		}
+		
+		public int getIconWidth() {
+			return width;
+		}
+		
+		public int getIconHeight() {
+			return height;
+		}
+	}
+	
+	/**
+	 * Builds atlases out of separate images.
+	 */
+	public static final class Packer {
+		// how wide an atlas is packed to
+		private static final int PACKED_WIDTH = 256;
+		
+		/**
+		 * Packs images into an atlas, in rows from left to right, and writes the
+		 * atlas and its index.
+		 * 
+		 * @param args	the path to write to, then the images to pack
+		 * @throws IOException	if an image cannot be read or written
+		 */
+		public static void main(String[] args) throws IOException {
+			if (args.length < 2) {
+				System.err.println("Usage: SpriteAtlas.Packer <output path> <image>...");
+				return;
+			}
+			
+			BufferedImage[] images = new BufferedImage[args.length-1];
+			int[][] places = new int[images.length][];
+			int x = 0, y = 0, rowHeight = 0, width = 0;
+			for (int i = 0; i < images.length; i++) {
+				images[i] = ImageIO.read(new File(args[i+1]));
+				if (x > 0 && x + images[i].getWidth() > PACKED_WIDTH) {
+					x = 0;
+					y += rowHeight;
+					rowHeight = 0;
+				}
+				places[i] = new int[]{x, y};
+				x += images[i].getWidth();
+				rowHeight = Math.max(rowHeight, images[i].getHeight());
+				width = Math.max(width, x);
+			}
+			
+			BufferedImage atlas = new BufferedImage(width, y + rowHeight, BufferedImage.TYPE_INT_ARGB);
+			Graphics g = atlas.getGraphics();
+			try (PrintWriter index = new PrintWriter(args[0]+".txt", "UTF-8")) {
+				for (int i = 0; i < images.length; i++) {
+					g.drawImage(images[i], places[i][0], places[i][1], null);
+					String name = new File(args[i+1]).getName().replaceFirst("\\.png$", "");
+					index.println(name+" "+places[i][0]+" "+places[i][1]+" "
+							+images[i].getWidth()+" "+images[i].getHeight());
+				}
+			}
+			g.dispose();
+			ImageIO.write(atlas, "png", new File(args[0]+".png"));
+		}
+	}
+}
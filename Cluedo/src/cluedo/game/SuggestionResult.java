@@ -0,0 +1,74 @@
+package cluedo.game;
+
+/**
+ * The outcome of a suggestion: who made it, which cards it named, who
+ * refuted it and which card they showed. The card shown is only given to the
+ * Player who made the suggestion (see shownTo), since nobody else gets to see
+ * it.
+ * 
+ * @author Louis Thie
+ */
+public final class SuggestionResult {
+	/**
+	 * Returned by shownTo when no card was shown, or not to that Player.
+	 */
+	public static final int NONE = -1;
+	
+	private final Player suggester;
+	private final int cards;
+	private final Player refuter;
+	private final int shown;
+	
+	/**
+	 * Constructs a SuggestionResult.
+	 * 
+	 * @param suggester		the Player who made the suggestion
+	 * @param cards			the suggested cards, as a bitmask of Card ids
+	 * @param refuter		the Player who refuted it, or null if nobody could
+	 * @param shown			the id of the card shown, or NONE
+	 */
+	public SuggestionResult(Player suggester, int cards, Player refuter, int shown) {
+		this.suggester = suggester;
+		this.cards = cards;
+		this.refuter = refuter;
+		this.shown = shown;
+	}
+	
+	/**
+	 * Returns the Player who made the suggestion.
+	 * 
+	 * @return	the suggester
+	 */
+	public Player suggester() {
+		return suggester;
+	}
+	
+	/**
+	 * Returns the three suggested cards.
+	 * 
+	 * @return	a bitmask of Card ids (see Card.mask)
+	 */
+	public int cards() {
+		return cards;
+	}
+	
+	/**
+	 * Returns the Player who refuted the suggestion.
+	 * 
+	 * @return	the refuter, or null if nobody could refute it
+	 */
+	public Player refuter() {
+		return refuter;
+	}
+	
+	/**
+	 * Returns the card which was shown, if the given Player is the one it
+	 * was shown to.
+	 * 
+	 * @param viewer	the Player asking
+	 * @return			the id of the card, or NONE if nothing was shown to them
+	 */
+	public int shownTo(Player viewer) {
+		return (viewer == suggester)? shown : NONE;
+	}
+}
@@ -0,0 +1,356 @@
+package cluedo.game;
+
+import java.util.ArrayList;
+
+/**
+ * The turns of a game, played one after another on a Board, as a state
+ * machine. A turn goes through these phases in order, skipping those which
+ * do not apply:
+ * 
+ * ROLL, MOVE, SUGGEST, REFUTE (once for each player asked), ACCUSE, END
+ * 
+ * and the game is OVER once someone has won. Every action is a method which
+ * returns straight away, after checking that it is allowed in the current
+ * phase, so the same game can be driven by clicks on a window, by bots or by
+ * messages from a remote client. Whoever is driving it is told about every
+ * change of phase through BoardListener.phaseChanged.
+ * 
+ * Characters are moved through the Board itself (Board.moveTo, move, exitRoom
+ * and takePassage), followed by a call to moved.
+ * 
+ * @author Louis Thie
+ */
+public class Turn {
+	/**
+	 * The phases of a turn.
+	 * 
+	 * @author Louis Thie
+	 */
+	public enum Phase {
+		/**
+		 * The current player is about to roll the dice.
+		 */
+		ROLL,
+		/**
+		 * The current player is moving their character.
+		 */
+		MOVE,
+		/**
+		 * The current player has entered a room, and may make a suggestion there.
+		 */
+		SUGGEST,
+		/**
+		 * A player (see getAsked) is being asked to refute the suggestion.
+		 */
+		REFUTE,
+		/**
+		 * The current player may make an accusation, or end their turn.
+		 */
+		ACCUSE,
+		/**
+		 * The current player's turn is over, and the controls should be handed
+		 * to the next player.
+		 */
+		END,
+		/**
+		 * The game has been won.
+		 */
+		OVER
+	}
+	
+	private final Board board;
+	private Phase phase;
+	
+	// the suggestion made this turn, if any
+	private Character suspect;
+	private Weapon weapon;
+	private Room room;
+	// the suggestion's cards, as a bitmask of Card ids
+	private int suggested;
+	
+	// the players to ask about the suggestion, which of them is being asked,
+	// and which of them has to refute it (see Board.refuterOf)
+	private ArrayList<Player> asked;
+	private int asking;
+	private Player mustRefute;
+	
+	// who refuted the suggestion and with which card, if anybody has
+	private Player refuter;
+	private Card shown;
+	
+	/**
+	 * Starts playing the given Board, from the first Player's turn. The game
+	 * must already have been started.
+	 * 
+	 * @param board		the Board to play
+	 */
+	public Turn(Board board) {
+		if (board.getCurrentPlayer() == null)
+			throw new IllegalStateException("The game must be started before it can be played.");
+		
+		this.board = board;
+		setPhase(board.gameOver()? Phase.OVER : Phase.ROLL);
+	}
+	
+	/**
+	 * Returns the phase the turn is in.
+	 * 
+	 * @return	the current phase
+	 */
+	public Phase getPhase() {
+		return phase;
+	}
+	
+	/**
+	 * Returns the Player whose turn it is.
+	 * 
+	 * @return	the current Player
+	 */
+	public Player getPlayer() {
+		return board.getCurrentPlayer();
+	}
+	
+	/**
+	 * Returns the Character suggested this turn.
+	 * 
+	 * @return	the suspect, or null if no suggestion has been made
+	 */
+	public Character getSuspect() {
+		return suspect;
+	}
+	
+	/**
+	 * Returns the Weapon suggested this turn.
+	 * 
+	 * @return	the weapon, or null if no suggestion has been made
+	 */
+	public Weapon getWeapon() {
+		return weapon;
+	}
+	
+	/**
+	 * Returns the Room the suggestion was made in this turn.
+	 * 
+	 * @return	the room, or null if no suggestion has been made
+	 */
+	public Room getRoom() {
+		return room;
+	}
+	
+	/**
+	 * Returns the Player being asked to refute the suggestion.
+	 * 
+	 * @return	the Player asked, or null unless in the REFUTE phase
+	 */
+	public Player getAsked() {
+		return (phase == Phase.REFUTE)? asked.get(asking) : null;
+	}
+	
+	/**
+	 * Returns the cards which the Player being asked could refute the
+	 * suggestion with. If there are any, they must show one of them.
+	 * 
+	 * @return	the matching cards in their hand, which may be none
+	 */
+	public ArrayList<Card> getRefutingCards() {
+		ArrayList<Card> matching = new ArrayList<Card>(3);
+		Player p = getAsked();
+		if (p != null && p == mustRefute) {
+			for (Card c : p.hand()) {
+				if ((c.bit() & suggested) != 0)
+					matching.add(c);
+			}
+		}
+		return matching;
+	}
+	
+	/**
+	 * Returns the Player who refuted this turn's suggestion.
+	 * 
+	 * @return	the refuter, or null if nobody has (yet)
+	 */
+	public Player getRefuter() {
+		return refuter;
+	}
+	
+	/**
+	 * Returns the card shown to refute this turn's suggestion. Only the
+	 * current Player should be told what it is.
+	 * 
+	 * @return	the card, or null if nobody has refuted the suggestion (yet)
+	 */
+	public Card getShownCard() {
+		return shown;
+	}
+	
+	/**
+	 * Returns the outcome of this turn's suggestion, in the same form as
+	 * Board.suggest, once everybody who needed to be asked has been.
+	 * 
+	 * @return	the result, or null if no suggestion has been made or it is
+	 * 			still being refuted
+	 */
+	public SuggestionResult getResult() {
+		if (suspect == null || phase == Phase.REFUTE)
+			return null;
+		return new SuggestionResult(getPlayer(), suggested, refuter,
+				(shown == null)? SuggestionResult.NONE : shown.id());
+	}
+	
+	/**
+	 * Rolls the dice, so the current Player can start moving.
+	 */
+	public void roll() {
+		require(Phase.ROLL);
+		board.rollDice();
+		setPhase(Phase.MOVE);
+	}
+	
+	/**
+	 * Tells this that the current Player's Character has been moved on the
+	 * Board. If it has entered a new Room, it stops there and may make a
+	 * suggestion; if it has no moves left, the moving is over.
+	 */
+	public void moved() {
+		require(Phase.MOVE);
+		Room r = getPlayer().character().location();
+		if (r != null && r != board.origin()) {
+			board.setRemainingMoves(0);
+			setPhase(Phase.SUGGEST);
+		} else if (board.getRemainingMoves() == 0) {
+			setPhase(Phase.ACCUSE);
+		}
+	}
+	
+	/**
+	 * Suggests that the murder was committed by the given Character with the
+	 * given Weapon, in the Room the current Player is in. Both are brought
+	 * into the Room, and each of the other Players is then asked in turn to
+	 * refute it.
+	 * 
+	 * @param c		the suspect
+	 * @param w		the weapon
+	 */
+	public void suggest(Character c, Weapon w) {
+		require(Phase.SUGGEST);
+		suspect = c;
+		weapon = w;
+		room = getPlayer().character().location();
+		suggested = Card.mask(c, w, room);
+		board.bringToRoom(c, room);
+		board.bringToRoom(w, room);
+		
+		mustRefute = board.refuterOf(getPlayer(), suggested);
+		asked = board.getHypoPlayers();
+		asking = -1;
+		askNext();
+	}
+	
+	/**
+	 * Makes no suggestion, even though the current Player has entered a Room.
+	 */
+	public void skipSuggestion() {
+		require(Phase.SUGGEST);
+		setPhase(Phase.ACCUSE);
+	}
+	
+	/**
+	 * Refutes the suggestion by showing the given card to the current Player.
+	 * 
+	 * @param c		one of getRefutingCards
+	 * @throws IllegalArgumentException		if the card does not refute it
+	 */
+	public void refute(Card c) {
+		require(Phase.REFUTE);
+		board.checkShown(getAsked(), suggested, c.id());
+		
+		refuter = getAsked();
+		shown = c;
+		setPhase(Phase.ACCUSE);
+	}
+	
+	/**
+	 * Tells this that the Player being asked cannot refute the suggestion, so
+	 * the next Player is asked.
+	 * 
+	 * @throws IllegalStateException	if they do hold one of the cards
+	 */
+	public void cannotRefute() {
+		require(Phase.REFUTE);
+		if (getAsked() == mustRefute)
+			throw new IllegalStateException(getAsked().name()+" holds a card which refutes the suggestion, so must show it.");
+		askNext();
+	}
+	
+	private void askNext() {
+		asking++;
+		setPhase((asking < asked.size())? Phase.REFUTE : Phase.ACCUSE);
+	}
+	
+	/**
+	 * Accuses the given Character of committing the murder with the given
+	 * Weapon in the given Room. The current Player wins if they are right,
+	 * and is eliminated otherwise. Accusations can be made at any point of
+	 * the current Player's own turn.
+	 * 
+	 * @param c		the accused Character
+	 * @param w		the accused Weapon
+	 * @param r		the accused Room
+	 * @return		whether the accusation was correct
+	 */
+	public boolean accuse(Character c, Weapon w, Room r) {
+		require(Phase.ROLL, Phase.MOVE, Phase.ACCUSE);
+		if (board.isSolution(c, w, r)) {
+			board.win();
+			setPhase(Phase.OVER);
+			return true;
+		}
+		
+		getPlayer().die();
+		setPhase(Phase.END);
+		return false;
+	}
+	
+	/**
+	 * Ends the current Player's turn.
+	 */
+	public void endTurn() {
+		require(Phase.ROLL, Phase.MOVE, Phase.ACCUSE);
+		setPhase(Phase.END);
+	}
+	
+	/**
+	 * Hands over to the next Player, ready for them to roll, unless they are
+	 * the only one left and so have won.
+	 */
+	public void next() {
+		require(Phase.END);
+		board.nextPlayer();
+		suspect = null;
+		weapon = null;
+		room = null;
+		suggested = 0;
+		mustRefute = null;
+		refuter = null;
+		shown = null;
+		
+		if (board.livingPlayers() > 1) {
+			setPhase(Phase.ROLL);
+		} else {
+			board.endByElimination();
+			setPhase(Phase.OVER);
+		}
+	}
+	
+	private void require(Phase... allowed) {
+		for (Phase p : allowed) {
+			if (phase == p) return;
+		}
+		throw new IllegalStateException("Cannot do that while in the "+phase+" phase.");
+	}
+	
+	private void setPhase(Phase p) {
+		phase = p;
+		board.listener().phaseChanged(this);
+	}
+}
@@ -1,6 +1,6 @@
 package cluedo.game;
 
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 
 /**
  * Represents the weapons of a Cluedo game, and stores all
@@ -24,24 +24,13 @@ public class Weapon implements GamePiece {
 		SPANNER('S');
 
 		// weapon images downloaded from https://nz.pinterest.com/pin/409898003558947968/
-		private static ImageIcon CANDLESTICK_icon = new ImageIcon(Weapon.class.getResource("img/CANDLESTICK.png"));
-		private static ImageIcon CANDLESTICK_card_icon = new ImageIcon(Weapon.class.getResource("img/CANDLESTICK_card.png"));
-		private static ImageIcon CANDLESTICK_card_large_icon = new ImageIcon(Weapon.class.getResource("img/CANDLESTICK_card_large.png"));
-		private static ImageIcon DAGGER_icon = new ImageIcon(Weapon.class.getResource("img/DAGGER.png"));
-		private static ImageIcon DAGGER_card_icon = new ImageIcon(Weapon.class.getResource("img/DAGGER_card.png"));
-		private static ImageIcon DAGGER_card_large_icon = new ImageIcon(Weapon.class.getResource("img/DAGGER_card_large.png"));
-		private static ImageIcon LEAD_PIPE_icon = new ImageIcon(Weapon.class.getResource("img/LEAD_PIPE.png"));
-		private static ImageIcon LEAD_PIPE_card_icon = new ImageIcon(Weapon.class.getResource("img/LEAD_PIPE_card.png"));
-		private static ImageIcon LEAD_PIPE_card_large_icon = new ImageIcon(Weapon.class.getResource("img/LEAD_PIPE_card_large.png"));
-		private static ImageIcon REVOLVER_icon = new ImageIcon(Weapon.class.getResource("img/REVOLVER.png"));
-		private static ImageIcon REVOLVER_card_icon = new ImageIcon(Weapon.class.getResource("img/REVOLVER_card.png"));
-		private static ImageIcon REVOLVER_card_large_icon = new ImageIcon(Weapon.class.getResource("img/REVOLVER_card_large.png"));
-		private static ImageIcon ROPE_icon = new ImageIcon(Weapon.class.getResource("img/ROPE.png"));
-		private static ImageIcon ROPE_card_icon = new ImageIcon(Weapon.class.getResource("img/ROPE_card.png"));
-		private static ImageIcon ROPE_card_large_icon = new ImageIcon(Weapon.class.getResource("img/ROPE_card_large.png"));
-		private static ImageIcon SPANNER_icon = new ImageIcon(Weapon.class.getResource("img/SPANNER.png"));
-		private static ImageIcon SPANNER_card_icon = new ImageIcon(Weapon.class.getResource("img/SPANNER_card.png"));
-		private static ImageIcon SPANNER_card_large_icon = new ImageIcon(Weapon.class.getResource("img/SPANNER_card_large.png"));
+		// indexed by IconVariant: PIECE, FLOOR, ROOM, CARD, CARD_LARGE, NAME
+		// (only loaded once an image is first asked for, so games without a
+		// window never load any)
+		private static final class Icons {
+			static final IconRegistry REGISTRY = new IconRegistry(Weapon.class, values(),
+					"", null, null, "_card", "_card_large", null);
+		}
 		
 		private char c;
 		
@@ -85,11 +74,14 @@ public class Weapon implements GamePiece {
 			return new String(name);
 		}
 
-		public ImageIcon icon(String mod) {
-			try {
-				return (ImageIcon) getClass().getDeclaredField(name()+mod+"_icon").get(this);
-			} catch (NoSuchFieldException | SecurityException | IllegalAccessException e) {}
-			return null;
+		/**
+		 * Returns one of the images of the Weapon with this name.
+		 * 
+		 * @param variant	which image to return
+		 * @return			the image, or null if there is no such image
+		 */
+		public Icon icon(IconVariant variant) {
+			return Icons.REGISTRY.get(this, variant);
 		}
 	}
 	
@@ -157,7 +149,7 @@ public class Weapon implements GamePiece {
 		location = r;
 	}
 	
-	public ImageIcon icon(String mod) {
-		return name.icon(mod);
+	public Icon icon(IconVariant variant) {
+		return name.icon(variant);
 	}
 }
@@ -1,6 +1,6 @@
 package cluedo.gui;
 
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 import javax.swing.JLabel;
 
 import cluedo.game.Card;
@@ -11,7 +11,7 @@ public class CardLabel extends JLabel {
 	
 	private Card card;
 	
-	public CardLabel(ImageIcon icon, Card c) {
+	public CardLabel(Icon icon, Card c) {
 		super(icon);
 		card = c;
 	}
@@ -1,139 +1,476 @@
 package cluedo.gui;
 
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Insets;
 import java.awt.Point;
-import java.awt.event.MouseListener;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.Transparency;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 
-import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
-import javax.swing.JLabel;
-import javax.swing.JPanel;
+import javax.swing.Icon;
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
 
 import cluedo.game.Board;
+import cluedo.game.AssetLoader;
+import cluedo.game.BitBoard;
+import cluedo.game.IconVariant;
+import cluedo.game.SpriteAtlas;
 
-public class GraphicsBoardDrawer extends JPanel {
-
+/**
+ * Draws the game board. The whole board is a single component which paints
+ * every square straight from the sprites of SpriteAtlas.BOARD, rather than
+ * having a label for each square.
+ * 
+ * The board is drawn in two layers. Everything which never changes during a
+ * game (corridors, room floors, doors, passageways and room names) is drawn
+ * once into an offscreen image, which is then copied in a single call each
+ * time the board is painted. Only the pieces are drawn on top of it square by
+ * square. The piece last shown on each square is remembered, so that
+ * drawBoard only repaints the squares whose pieces have changed since the
+ * last time.
+ * 
+ * The squares the current Player can get to may be highlighted (see
+ * showReachable), with a translucent layer between the fixed parts of the
+ * board and the pieces.
+ * 
+ * Every square is the same size, so the square under the mouse is worked out
+ * from its coordinates alone, by a single listener on the whole board.
+ * 
+ * The board can be zoomed (holding Ctrl while scrolling, or with zoomIn and
+ * zoomOut), and when it is inside a JScrollPane, dragged around. It starts
+ * zoomed in on dense screens which Java does not already scale up. Images are
+ * always drawn at the screen's own resolution: each is scaled once for each
+ * size of square it is drawn at (see ScaledIcons), and never while painting.
+ */
+public class GraphicsBoardDrawer extends JComponent {
+	/**
+	 * Told about clicks on the board.
+	 */
+	public interface SquareListener {
+		/**
+		 * Called when a square of the board is clicked on.
+		 * 
+		 * @param row	the row of the square
+		 * @param col	the column of the square
+		 */
+		void squareClicked(int row, int col);
+	}
+	
 	private static final long serialVersionUID = 1L;
 	
-	private static ImageIcon emptySquare = new ImageIcon(GraphicsBoardDrawer.class.getResource("img/empty.png"));
-	private static ImageIcon floorSquare = new ImageIcon(GraphicsBoardDrawer.class.getResource("img/floor.png"));
-	private static ImageIcon roomSquare = new ImageIcon(GraphicsBoardDrawer.class.getResource("img/room.png"));
-
-	private static ImageIcon passageway_NE_SW_icon = new ImageIcon(GraphicsBoardDrawer.class.getResource("img/passageway_NE_SW.png"));
-	private static ImageIcon passageway_NW_SE_icon = new ImageIcon(GraphicsBoardDrawer.class.getResource("img/passageway_NW_SE.png"));
+	/**
+	 * The width and height of a square on the board, in pixels, when it is
+	 * not zoomed.
+	 */
+	public static final int CELL = 15;
+	
+	// the size of a square at each level of zoom
+	private static final int[] ZOOMS = {15, 20, 25, 30, 40, 50, 60};
+	
+	// the images scaled to each size they have been drawn at
+	private static final ScaledIcons scaled = new ScaledIcons(CELL);
+	
+	private static Icon emptySquare = SpriteAtlas.BOARD.get("empty");
+	private static Icon floorSquare = SpriteAtlas.BOARD.get("floor");
+	private static Icon roomSquare = SpriteAtlas.BOARD.get("room");
+	
+	private static Icon passageway_NE_SW_icon = SpriteAtlas.BOARD.get("passageway_NE_SW");
+	private static Icon passageway_NW_SE_icon = SpriteAtlas.BOARD.get("passageway_NW_SE");
+	
+	// laid over the squares which can be reached
+	private static final Color REACHABLE = new Color(64, 160, 255, 96);
 	
 	private Board b;
 	
-	private JLabel[][] boardLabels;
+	// the piece each square was last drawn with (or null), indexed by Board.square
+	private Icon[] shown = new Icon[Board.ROWS * Board.COLS];
+	
+	// the squares highlighted as ones the current Player can get to
+	private final BitBoard reachable = new BitBoard();
+	
+	// the fixed parts of the board, drawn when first needed, and the scale
+	// from this component's pixels to the image's it was drawn for
+	private Image background;
+	private double backgroundScale;
+	
+	// index into ZOOMS
+	private int zoom = defaultZoom();
 	
-	public GraphicsBoardDrawer(Board b, GraphicsUI parent) {
+	public GraphicsBoardDrawer(Board b, final SquareListener l) {
 		this.b = b;
+		setOpaque(true);
 		
-		setSize(390, 420); // 26 rows, 24 cols, with 15x15 squares
-		setMinimumSize(getSize());
-		setPreferredSize(getSize());
-		setMaximumSize(getSize());
-		
-		boardLabels = new JLabel[26][24];
-		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+		MouseAdapter mouse = new MouseAdapter() {
+			// where a drag started, on the screen, and the part of the board shown then
+			private Point dragStart, viewStart;
+			
+			public void mouseClicked(MouseEvent e) {
+				int row = rowAt(e.getY()), col = colAt(e.getX());
+				if (row >= 0 && col >= 0)
+					l.squareClicked(row, col);
+			}
+			
+			public void mousePressed(MouseEvent e) {
+				JViewport view = viewport();
+				if (view != null) {
+					dragStart = e.getLocationOnScreen();
+					viewStart = view.getViewPosition();
+				}
+			}
+			
+			public void mouseDragged(MouseEvent e) {
+				JViewport view = viewport();
+				if (view != null && dragStart != null) {
+					Point now = e.getLocationOnScreen();
+					scrollTo(view, viewStart.x - (now.x - dragStart.x), viewStart.y - (now.y - dragStart.y));
+				}
+			}
+			
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				if (e.isControlDown()) {
+					setZoom(zoom - e.getWheelRotation(), e.getPoint());
+				} else if (getParent() != null) {
+					// scrolling is left to the scroll pane, if there is one
+					getParent().dispatchEvent(SwingUtilities.convertMouseEvent(GraphicsBoardDrawer.this, e, getParent()));
+				}
+			}
+		};
+		addMouseListener(mouse);
+		addMouseMotionListener(mouse);
+		addMouseWheelListener(mouse);
+	}
+	
+	// the zoom whose squares are closest to CELL pixels at the screen's
+	// density, unless Java scales everything up by itself anyway
+	private static int defaultZoom() {
+		if (GraphicsEnvironment.isHeadless())
+			return 0;
+		GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration();
+		if (gc.getDefaultTransform().getScaleX() > 1)
+			return 0;
 		
-		setupBoard(parent);
+		int wanted = CELL * Toolkit.getDefaultToolkit().getScreenResolution() / 96;
+		int best = 0;
+		for (int i = 1; i < ZOOMS.length; i++) {
+			if (Math.abs(ZOOMS[i] - wanted) < Math.abs(ZOOMS[best] - wanted))
+				best = i;
+		}
+		return best;
 	}
 	
-	public void setupBoard(MouseListener l) {
-		int[][] board = b.getGrid();
+	/**
+	 * Makes the squares of the board bigger, if they are not as big as they
+	 * can be, keeping the middle of the part of the board shown in place.
+	 */
+	public void zoomIn() {
+		setZoom(zoom + 1, centre());
+	}
+	
+	/**
+	 * Makes the squares of the board smaller, if they are not as small as
+	 * they can be, keeping the middle of the part of the board shown in place.
+	 */
+	public void zoomOut() {
+		setZoom(zoom - 1, centre());
+	}
+	
+	/**
+	 * Draws the board at its normal size.
+	 */
+	public void resetZoom() {
+		setZoom(0, centre());
+	}
+	
+	// the middle of the part of the board which is shown
+	private Point centre() {
+		Rectangle shown = getVisibleRect();
+		return new Point(shown.x + shown.width/2, shown.y + shown.height/2);
+	}
+	
+	// zooms so that the point of the board at the given position stays there
+	private void setZoom(int level, Point fixed) {
+		level = Math.max(0, Math.min(ZOOMS.length-1, level));
+		if (level == zoom) return;
+		
+		int before = cell();
+		zoom = level;
+		int after = cell();
+		background = null;
+		revalidate();
 		
-		for (int i = 0; i < 26; i++) {
-			JPanel row = new JPanel();
-			row.setLayout(new BoxLayout(row, BoxLayout.X_AXIS));
-			for (int j = 0; j < 24; j++) {
-				if (board[i][j] == 0) {
-					boardLabels[i][j] = new JLabel(emptySquare);
-					boardLabels[i][j].addMouseListener(l);
-					row.add(boardLabels[i][j]);
-				} else if (board[i][j] == 1) {
-					boardLabels[i][j] = new JLabel(floorSquare);
-					boardLabels[i][j].addMouseListener(l);
-					row.add(boardLabels[i][j]);
-				} else if (board[i][j] > 1 && board[i][j] < 11) {
-					ImageIcon icon = b.getRoomByCode(board[i][j]).getIcon(i, j);
-					if (icon != null && icon.getIconWidth() > 15) {
-						boardLabels[i][j] = new JLabel(icon);
-						boardLabels[i][j].addMouseListener(l);
-						int length = b.getRoomByCode(board[i][j]).getNameWidth();
-						row.add(boardLabels[i][j]);
-						for (int count = 0; count < length-1; count++) {
-							j++;
-						}
+		JViewport view = viewport();
+		if (view != null) {
+			Point shown = view.getViewPosition();
+			int x = xOf(0) + (fixed.x - xOf(0)) * after / before;
+			int y = yOf(0) + (fixed.y - yOf(0)) * after / before;
+			view.setViewSize(getPreferredSize());	// rather than waiting for the layout
+			scrollTo(view, shown.x + x - fixed.x, shown.y + y - fixed.y);
+		}
+		repaint();
+	}
+	
+	// shows the part of the board from the given position, as far as it goes
+	private void scrollTo(JViewport view, int x, int y) {
+		Dimension size = view.getViewSize(), shown = view.getExtentSize();
+		x = Math.max(0, Math.min(size.width - shown.width, x));
+		y = Math.max(0, Math.min(size.height - shown.height, y));
+		view.setViewPosition(new Point(x, y));
+	}
+	
+	// the scroll pane's view of this, or null if it is not in one
+	private JViewport viewport() {
+		return (getParent() instanceof JViewport)? (JViewport)getParent() : null;
+	}
+	
+	// the width and height of a square, in this component's pixels
+	private int cell() {
+		return ZOOMS[zoom];
+	}
+	
+	/**
+	 * Repaints the squares whose pieces have changed since this was last
+	 * called. Swing merges the requests into a single frame.
+	 */
+	public void drawBoard() {
+		for (int i = 0; i < Board.ROWS; i++) {
+			for (int j = 0; j < Board.COLS; j++) {
+				Icon icon = pieceAt(i, j);
+				int square = Board.square(i, j);
+				if (icon != shown[square]) {
+					shown[square] = icon;
+					// with a margin for rounding on screens scaled by fractions
+					repaint(xOf(j)-1, yOf(i)-1, cell()+2, cell()+2);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Highlights the given squares, and every square of the given Rooms, as
+	 * the ones the current Player can get to, in place of any highlighted
+	 * before. Only the squares which change are repainted.
+	 * 
+	 * @param squares	the corridor squares to highlight, or null for none
+	 * @param rooms		a bitmask of the Rooms to highlight, indexed by Room.toInt()
+	 */
+	public void showReachable(BitBoard squares, int rooms) {
+		for (int i = 0; i < Board.ROWS; i++) {
+			for (int j = 0; j < Board.COLS; j++) {
+				int square = Board.square(i, j);
+				int code = b.getSquare(i, j);
+				boolean highlight = (code > 1 && code < 11)? (rooms & (1 << (code-2))) != 0
+						: squares != null && squares.get(square);
+				if (highlight != reachable.get(square)) {
+					if (highlight) {
+						reachable.set(square);
 					} else {
-						boardLabels[i][j] = new JLabel(roomSquare);
-						boardLabels[i][j].addMouseListener(l);
-						row.add(boardLabels[i][j]);
+						reachable.clear(square);
 					}
-					
-				} else if (board[i][j] == 11) {
-					boardLabels[i][j] = new JLabel(passageway_NW_SE_icon);
-					boardLabels[i][j].addMouseListener(l);
-					row.add(boardLabels[i][j]);
-				} else if (board[i][j] == 12) {
-					boardLabels[i][j] = new JLabel(passageway_NE_SW_icon);
-					boardLabels[i][j].addMouseListener(l);
-					row.add(boardLabels[i][j]);
+					repaint(xOf(j)-1, yOf(i)-1, cell()+2, cell()+2);
 				}
 			}
-			add(row);
 		}
 	}
 	
-	public void drawBoard() {
-		int[][] board = b.getGrid();
-		int[][] players = b.getPlayerGrid();
+	@Override
+	protected void paintComponent(Graphics g) {
+		AssetLoader.frameDrawn();
 		
-		for (int i = 0; i < 26; i++) {
-			for (int j = 0; j < 24; j++) {
-				if (board[i][j] == 0) {
-					boardLabels[i][j].setIcon(emptySquare);
-				} else if (board[i][j] == 1) {
-					if (players[i][j] > 0) {
-						boardLabels[i][j].setIcon(
-								b.getCharacterByCode(players[i][j]).icon("_floor")
-								);
-					} else {
-						boardLabels[i][j].setIcon(floorSquare);
-					}
-				} else if (board[i][j] > 1 && board[i][j] < 11) {
-					ImageIcon icon = b.getRoomByCode(board[i][j]).getIcon(i, j);
-					if (icon == null) {
-						boardLabels[i][j].setIcon(roomSquare);
-					} else {
-						if (icon.getIconWidth() > 15) {
-							// room name icon
-							int nameWidth = b.getRoomByCode(board[i][j]).getNameWidth();
-							for (int count = 0; count < nameWidth; count++) {
-								j++;
-							}
-						} else {
-							boardLabels[i][j].setIcon(icon);
-						}
+		// only the squares which need repainting (the whole board if there is no clip)
+		Rectangle clip = g.getClipBounds(new Rectangle(0, 0, getWidth(), getHeight()));
+		int firstRow = Math.max(0, rowOf(clip.y) - 1);
+		int lastRow = Math.min(Board.ROWS-1, rowOf(clip.y + clip.height - 1) + 1);
+		int firstCol = Math.max(0, colOf(clip.x) - 1);
+		int lastCol = Math.min(Board.COLS-1, colOf(clip.x + clip.width - 1) + 1);
+		
+		// draw in the screen's own pixels, with images already scaled to them
+		Graphics2D g2 = (Graphics2D)g.create();
+		try {
+			AffineTransform t = g2.getTransform();
+			double scale = t.getScaleX();
+			g2.setTransform(AffineTransform.getTranslateInstance(
+					Math.round(t.getTranslateX() + xOf(0) * scale),
+					Math.round(t.getTranslateY() + yOf(0) * scale)));
+			
+			if (background == null || backgroundScale != scale) {
+				background = drawBackground(scale);
+				backgroundScale = scale;
+			}
+			g2.drawImage(background, 0, 0, this);
+			
+			if (!reachable.isEmpty()) {
+				// squares exactly edge to edge, so that no pixel is covered twice
+				g2.setColor(REACHABLE);
+				for (int i = firstRow; i <= lastRow; i++) {
+					for (int j = firstCol; j <= lastCol; j++) {
+						if (reachable.get(Board.square(i, j)))
+							g2.fillRect(at(j, scale), at(i, scale), at(j+1, scale) - at(j, scale), at(i+1, scale) - at(i, scale));
 					}
-					/*if (players[i][j] > 0) {
-						boardLabels[i][j].setIcon(
-								b.getCharacterByCode(players[i][j]).icon("_room")
-								);
-					} else {
-						boardLabels[i][j].setIcon(roomSquare);
-					}*/
 				}
 			}
+			
+			int size = pixels(scale);
+			for (int i = firstRow; i <= lastRow; i++) {
+				for (int j = firstCol; j <= lastCol; j++) {
+					Icon icon = pieceAt(i, j);
+					if (icon != null)
+						g2.drawImage(scaled.get(icon, size, getGraphicsConfiguration()), at(j, scale), at(i, scale), this);
+				}
+			}
+		} finally {
+			g2.dispose();
 		}
 	}
 	
-	public Point findLabel(JLabel lbl) {
-		for (int y = 0; y < 26; y++) {
-			for (int x = 0; x < 24; x++) {
-				if (lbl.equals(boardLabels[y][x]))
-					return new Point(x,y);
+	// the size of a square in the screen's pixels, rounded up so that
+	// squares overlap rather than leaving gaps between them
+	private int pixels(double scale) {
+		return (int)Math.ceil(cell() * scale - 1e-9);
+	}
+	
+	// where the given row or column starts, in the screen's pixels
+	private int at(int index, double scale) {
+		return (int)Math.round(index * cell() * scale);
+	}
+	
+	/**
+	 * Called when this is added to a window, which may be on a different
+	 * screen than before, so the background is drawn again to suit it.
+	 */
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		background = null;
+	}
+	
+	// draws the fixed parts of the board into an image suited to the screen
+	private Image drawBackground(double scale) {
+		int size = pixels(scale);
+		int width = at(Board.COLS-1, scale) + size, height = at(Board.ROWS-1, scale) + size;
+		GraphicsConfiguration gc = getGraphicsConfiguration();
+		Image image = (gc == null)? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)
+				: gc.createCompatibleImage(width, height, Transparency.OPAQUE);
+		
+		Graphics g = image.getGraphics();
+		try {
+			for (int i = 0; i < Board.ROWS; i++) {
+				for (int j = 0; j < Board.COLS; j++) {
+					Icon icon = tileAt(i, j);
+					g.drawImage(scaled.get(icon, size, gc), at(j, scale), at(i, scale), null);
+					j += span(icon, i, j) - 1;
+				}
 			}
+		} finally {
+			g.dispose();
+		}
+		return image;
+	}
+	
+	// how many squares the icon for the given square covers
+	private int span(Icon icon, int row, int col) {
+		if (icon.getIconWidth() > CELL) {
+			// room name icon, which covers several squares
+			return b.getRoomByCode(b.getSquare(row, col)).getNameWidth();
+		}
+		return 1;
+	}
+	
+	// the fixed image of the given square
+	private Icon tileAt(int row, int col) {
+		int square = b.getSquare(row, col);
+		if (square == 1) {
+			return floorSquare;
+		} else if (square > 1 && square < 11) {
+			Icon icon = b.getRoomByCode(square).getFixedIcon(row, col);
+			return (icon == null)? roomSquare : icon;
+		} else if (square == 11) {
+			return passageway_NW_SE_icon;
+		} else if (square == 12) {
+			return passageway_NE_SW_icon;
+		}
+		return emptySquare;
+	}
+	
+	// the piece on the given square, or null if there is none
+	private Icon pieceAt(int row, int col) {
+		int square = b.getSquare(row, col);
+		if (square == 1) {
+			int occupant = b.getOccupant(row, col);
+			return (occupant > 0)? b.getCharacterByCode(occupant).icon(IconVariant.FLOOR) : null;
+		} else if (square > 1 && square < 11) {
+			return b.getRoomByCode(square).getPieceIcon(row, col);
 		}
 		return null;
 	}
+	
+	/**
+	 * Returns the row of the board at the given height in this component.
+	 * 
+	 * @param y		the y coordinate, such as where the mouse was clicked
+	 * @return		the row, or -1 if y is above or below the board
+	 */
+	public int rowAt(int y) {
+		y -= getInsets().top;
+		return (y < 0 || y >= Board.ROWS * cell())? -1 : y / cell();
+	}
+	
+	// the row at the given height, even if it is off the board
+	private int rowOf(int y) {
+		return Math.floorDiv(y - getInsets().top, cell());
+	}
+	
+	/**
+	 * Returns the column of the board at the given position across this
+	 * component.
+	 * 
+	 * @param x		the x coordinate, such as where the mouse was clicked
+	 * @return		the column, or -1 if x is to the left or right of the board
+	 */
+	public int colAt(int x) {
+		x -= getInsets().left;
+		return (x < 0 || x >= Board.COLS * cell())? -1 : x / cell();
+	}
+	
+	// the column at the given position across, even if it is off the board
+	private int colOf(int x) {
+		return Math.floorDiv(x - getInsets().left, cell());
+	}
+	
+	private int xOf(int col) {
+		return getInsets().left + col * cell();
+	}
+	
+	private int yOf(int row) {
+		return getInsets().top + row * cell();
+	}
+	
+	@Override
+	public Dimension getPreferredSize() {
+		Insets in = getInsets();
+		return new Dimension(in.left + Board.COLS * cell() + in.right, in.top + Board.ROWS * cell() + in.bottom);
+	}
+	
+	@Override
+	public Dimension getMinimumSize() {
+		return getPreferredSize();
+	}
+	
+	@Override
+	public Dimension getMaximumSize() {
+		return getPreferredSize();
+	}
 }
@@ -2,7 +2,6 @@ package cluedo.gui;
 
 import java.awt.Component;
 import java.awt.Dimension;
-import java.awt.Point;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
@@ -10,13 +9,9 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
-import java.util.ArrayList;
-import java.util.HashMap;
 
 import javax.swing.BoxLayout;
-import javax.swing.ButtonGroup;
-import javax.swing.ImageIcon;
-import javax.swing.JButton;
+import javax.swing.Icon;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JMenu;
@@ -24,20 +19,18 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
-import javax.swing.JRadioButton;
-import javax.swing.JTextField;
+import javax.swing.JScrollPane;
 import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 
 import cluedo.Main;
 import cluedo.game.Board;
+import cluedo.game.BoardListener;
 import cluedo.game.Character;
-import cluedo.game.Player;
-import cluedo.game.Room;
-import cluedo.game.Weapon;
-import cluedo.game.Board.Direction;
-import cluedo.game.Card;
+import cluedo.game.Turn;
+import cluedo.game.Turn.Phase;
 
-public class GraphicsUI extends JFrame implements WindowListener, MouseListener {
+public class GraphicsUI extends JFrame implements BoardListener, WindowListener, MouseListener {
 	
 	private static final long serialVersionUID = 1L;
 
@@ -45,26 +38,33 @@ public class GraphicsUI extends JFrame implements WindowListener, MouseListener
 	
 	private JPanel outermostPanel;
 	private GraphicsBoardDrawer gameBoard;
+	private ReachabilityOverlay reachable;
 	private TableCardDrawer faceUps;
 	private HandDrawer hand;
 	private DiceLabel dice;
+	private TurnPanel controls;
 	
 	private Board board;
+	private Turn turn;
+	private boolean redrawPending = false;
 	
 	public GraphicsUI(Board b) {
 		super("Cluedo, the Great Detective Game");
 		
 		board = b;
-		board.setUI(this);
+		board.setListener(this);
 
 		setSize(500, 600);
 		setPreferredSize(getSize());
 		Dimension dim = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
 		setLocation(dim.width/2-this.getSize().width/2, dim.height/2-this.getSize().height/2);
 		
-		
-		setupPanel();
-		getContentPane().add(outermostPanel);
+		// the players are added first, then the game is set up in its place
+		getContentPane().add(new SetupPanel(board, new Runnable() {
+			public void run() {
+				startGame();
+			}
+		}));
 
 		// tell frame to fire a WindowsListener event
 		// but not to close when "x" button clicked.
@@ -73,11 +73,17 @@ public class GraphicsUI extends JFrame implements WindowListener, MouseListener
 		
 		pack();
 		setVisible(true);
+	}
+	
+	private void startGame() {
+		getContentPane().removeAll();
+		setupPanel();
+		getContentPane().add(outermostPanel);
+		revalidate();
+		repaint();
 		
 		board.startGame();
-		drawBoard();
-		board.startTurn();
-		drawBoard();
+		new Turn(board);	// which tells phaseChanged about its first phase
 	}
 	
 	private void setupPanel() {
@@ -88,9 +94,19 @@ public class GraphicsUI extends JFrame implements WindowListener, MouseListener
 		setupMenu();
 		
 		JPanel tablePanel = new JPanel();
-		gameBoard = new GraphicsBoardDrawer(board, this);
-		gameBoard.setAlignmentX(Component.LEFT_ALIGNMENT);
-		tablePanel.add(gameBoard);
+		gameBoard = new GraphicsBoardDrawer(board, new GraphicsBoardDrawer.SquareListener() {
+			public void squareClicked(int row, int col) {
+				if (turn.getPhase() == Phase.MOVE)
+					moveCurrentPlayerTo(row, col);
+			}
+		});
+		reachable = new ReachabilityOverlay(board, gameBoard);
+		// lets the board be dragged around when it is zoomed in
+		JScrollPane boardView = new JScrollPane(gameBoard);
+		boardView.setBorder(null);
+		boardView.setPreferredSize(gameBoard.getPreferredSize());
+		boardView.setAlignmentX(Component.LEFT_ALIGNMENT);
+		tablePanel.add(boardView);
 		faceUps = new TableCardDrawer(board.getFaceUpCards());
 		faceUps.setAlignmentX(Component.LEFT_ALIGNMENT);
 		tablePanel.add(faceUps);
@@ -103,41 +119,11 @@ public class GraphicsUI extends JFrame implements WindowListener, MouseListener
 		JPanel turnPanel = new JPanel();
 		turnPanel.setLayout(new BoxLayout(turnPanel, BoxLayout.Y_AXIS));
 		dice = new DiceLabel(board);
-		turnPanel.add(dice, "wrap 20");
-		
-		JButton accuseButton = new JButton("Make accusation");
-		accuseButton.addActionListener(new ActionListener() {
-			public void actionPerformed(ActionEvent e) {
-				if (board.gameOver()) return;	// no accusing after game is done
-				
-				int ans = JOptionPane.showConfirmDialog(
-						root,
-						"Are you sure you want to make an accusation?",
-						"Accusation?",
-						JOptionPane.YES_NO_OPTION
-				);
-				
-				if (ans == JOptionPane.YES_OPTION) {
-					root.accusation();
-				}
-			}
-		});
-		turnPanel.add(accuseButton, "wrap 10");
-		
-		JButton endTurnButton = new JButton("End Turn");
-		endTurnButton.addActionListener(new ActionListener() {
-			public void actionPerformed(ActionEvent e) {
-				board.endTurn();
-				// game should not be able to end when this button is pressed
-				hand.setVisible(false);
-				drawBoard();
-				notification("It is now "+board.getCurrentPlayer().name()+"'s turn.\nPlease hand the controls over to them.");
-				hand.setVisible(true);
-				drawBoard();
-				root.drawBoard();
-			}
-		});
-		turnPanel.add(endTurnButton);
+		dice.setAlignmentX(Component.LEFT_ALIGNMENT);
+		turnPanel.add(dice);
+		controls = new TurnPanel(board, this);
+		controls.setAlignmentX(Component.LEFT_ALIGNMENT);
+		turnPanel.add(controls);
 		
 		playerPanel.add(turnPanel);
 		
@@ -176,14 +162,7 @@ public class GraphicsUI extends JFrame implements WindowListener, MouseListener
 		JMenuItem endTurn = new JMenuItem("End turn", KeyEvent.VK_E);
 		endTurn.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				board.endTurn();
-				// game should not be able to end when this item is pressed/activated
-				hand.setVisible(false);
-				drawBoard();
-				notification("It is now "+board.getCurrentPlayer().name()+"'s turn.\nPlease hand the controls over to them.");
-				hand.setVisible(true);
-				drawBoard();
-				root.drawBoard();
+				controls.endTurn();
 			}
 		});
 		endTurn.setAccelerator(KeyStroke.getKeyStroke(
@@ -202,6 +181,40 @@ public class GraphicsUI extends JFrame implements WindowListener, MouseListener
 				KeyEvent.VK_X, ActionEvent.CTRL_MASK));
 		menu.add(exit);
 		
+		JMenu viewMenu = new JMenu("View");
+		viewMenu.setMnemonic(KeyEvent.VK_V);
+		menuBar.add(viewMenu);
+		
+		JMenuItem zoomIn = new JMenuItem("Zoom in", KeyEvent.VK_I);
+		zoomIn.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				gameBoard.zoomIn();
+			}
+		});
+		zoomIn.setAccelerator(KeyStroke.getKeyStroke(
+				KeyEvent.VK_EQUALS, ActionEvent.CTRL_MASK));
+		viewMenu.add(zoomIn);
+		
+		JMenuItem zoomOut = new JMenuItem("Zoom out", KeyEvent.VK_O);
+		zoomOut.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				gameBoard.zoomOut();
+			}
+		});
+		zoomOut.setAccelerator(KeyStroke.getKeyStroke(
+				KeyEvent.VK_MINUS, ActionEvent.CTRL_MASK));
+		viewMenu.add(zoomOut);
+		
+		JMenuItem actualSize = new JMenuItem("Actual size", KeyEvent.VK_A);
+		actualSize.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				gameBoard.resetZoom();
+			}
+		});
+		actualSize.setAccelerator(KeyStroke.getKeyStroke(
+				KeyEvent.VK_0, ActionEvent.CTRL_MASK));
+		viewMenu.add(actualSize);
+		
 		JMenu helpMenu = new JMenu("Help");
 		helpMenu.setMnemonic(KeyEvent.VK_H);
 		menuBar.add(helpMenu);
@@ -209,9 +222,9 @@ public class GraphicsUI extends JFrame implements WindowListener, MouseListener
 		JMenuItem movement = new JMenuItem("Movement Help", KeyEvent.VK_M);
 		movement.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				String message = "To move, click on a tile adjacent to your character."
-						+ "\nYou may also click further away, as long as you click within the same row or column as your character."
-						+ "\nWhen in a room, you may click on a secret passage to use it. To leave the room normally, just click on\na tile just outside one of the room's doors.";
+				String message = "To move, click on any tile you can get to with the moves you have left, and your character will take"
+						+ "\nthe shortest way there. Click on a room to walk into it, and on a secret passage to use it."
+						+ "\nHold Ctrl and scroll to zoom in or out, and drag the board to move around it.";
 				JOptionPane.showMessageDialog(root, message, "Movement Info", JOptionPane.INFORMATION_MESSAGE);
 			}
 		});
@@ -220,362 +233,42 @@ public class GraphicsUI extends JFrame implements WindowListener, MouseListener
 		outermostPanel.add(menuBar);
 	}
 	
-	public HashMap<String, Object> askForUserInfo(Character[] options) {
-		String name = null;
-		
-		while (name == null || name.isEmpty()) {
-			// apparently I need to use a JTextField, so I will play it safe and assume a JOptionPane is not good enough
-			//name = JOptionPane.showInputDialog(this, new JLabel("What is your name?"), "Input name", JOptionPane.QUESTION_MESSAGE);
-			JPanel namePanel = new JPanel();
-			namePanel.setLayout(new BoxLayout(namePanel, BoxLayout.Y_AXIS));
-			namePanel.add(new JLabel("What is your name?"));
-			JTextField nameField = new JTextField(30) {
-			    public void addNotify() {
-			        super.addNotify();
-			        requestFocus();
-			    }
-			};
-			namePanel.add(nameField);
-			
-			JOptionPane.showMessageDialog(this, namePanel, "Input your name", JOptionPane.PLAIN_MESSAGE);
-			name = nameField.getText();
-		}
-		
-		JPanel charSelect = new JPanel();
-		charSelect.setLayout(new BoxLayout(charSelect, BoxLayout.Y_AXIS));
-		charSelect.add(new JLabel(name+", please select a character"));
-		
-		ButtonGroup charButtons = new ButtonGroup();
-		for (Character c : options) {
-			JRadioButton button = new JRadioButton(c.toString());
-			
-			if (c.player() != null) {
-				button.setEnabled(false);
-			}
-			
-			charButtons.add(button);
-			charSelect.add(button);
-		}
-		
-		Character userChar = null;
-		
-		while (userChar == null) {
-			JOptionPane.showMessageDialog(this, charSelect);
-			for (Component c : charSelect.getComponents()) {
-				if (c instanceof JRadioButton && ((JRadioButton)c).isSelected()) {
-					String charName = ((JRadioButton)c).getText();
-					for (Character ch : options) {
-						if (ch.toString().equals(charName)) {
-							userChar = ch;
-						}
-					}
-				}
+	/**
+	 * Asks for everything on screen to be brought up to date with the Board.
+	 * Any number of calls made before the next turn of the event queue are
+	 * merged into one, and only the parts which have changed are repainted.
+	 */
+	public void drawBoard() {
+		if (redrawPending) return;
+		redrawPending = true;
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				redrawPending = false;
+				gameBoard.drawBoard();
+				faceUps.drawBoard(root);
+				hand.drawBoard(root);
+				dice.redraw();
 			}
-		}
-		
-		HashMap<String, Object> choices = new HashMap<String, Object>();
-		choices.put("name", name);
-		choices.put("character", userChar);
-		
-		return choices;
-	}
-	
-	public int getPlayerCount() {
-		Integer ans = null;
-		do {
-			ans = (Integer)JOptionPane.showInputDialog(
-				this,
-				"How many people are playing?",
-				"Number of players",
-				JOptionPane.QUESTION_MESSAGE,
-				null,
-				new Integer[]{3,4,5,6},
-				0
-			);
-		} while (ans == null);
-		return ans;
+		});
 	}
 	
-	public void drawBoard() {
-		gameBoard.drawBoard();
-		faceUps.drawBoard(this);
-		hand.drawBoard(this);
-		dice.redraw();
-		revalidate();
-		repaint();
+	@Override
+	public void notification(String message) {
+		controls.setStatus(message);
 	}
 	
-	public void hypothesise() {
-		Room murderRoom = board.getCurrentPlayer().character().location();
-		
-		ArrayList<Character> chars = board.getCharacters();
-		Character murderChar = null;
-		do {
-			murderChar = (Character) JOptionPane.showInputDialog(
-					this,
-					"Who do you think committed the murder?",
-					"Murderer",
-					JOptionPane.QUESTION_MESSAGE,
-					null,
-					chars.toArray(new Character[chars.size()]),
-					chars.get(0)
-			);
-		} while (murderChar == null);
-		
-		if (murderChar.location() != null) {
-			murderChar.location().removeCharacter(murderChar);
+	@Override
+	public void phaseChanged(Turn t) {
+		turn = t;
+		// the hand is hidden while the controls are with somebody else
+		hand.setVisible(t.getPhase() != Phase.REFUTE && t.getPhase() != Phase.END);
+		if (t.getPhase() == Phase.MOVE) {
+			reachable.show(t.getPlayer().character(), board.getRemainingMoves());
 		} else {
-			board.getPlayerGrid()[murderChar.getRow()][murderChar.getCol()] = 0;
+			reachable.clear();
 		}
-		murderChar.enterRoom(murderRoom);
-		murderRoom.addCharacter(murderChar);
-		
-		drawBoard();
-		
-		ArrayList<Weapon> weapons = board.getWeapons();
-		Weapon murderWeapon = null;
-		do {
-			murderWeapon = (Weapon) JOptionPane.showInputDialog(
-					this,
-					"Which weapon do you think was used for the murder?",
-					"Murder weapon",
-					JOptionPane.QUESTION_MESSAGE,
-					null,
-					weapons.toArray(new Weapon[weapons.size()]),
-					weapons.get(0)
-			);
-		} while (murderWeapon == null);
-		murderWeapon.location().removeWeapon(murderWeapon);
-		murderWeapon.moveToRoom(murderRoom);
-		murderRoom.addWeapon(murderWeapon);
-		
-		drawBoard();
-		
-		hand.setVisible(false);
+		controls.show(t);
 		drawBoard();
-		checkHypothesis(board.getHypoPlayers(), murderChar, murderWeapon, murderRoom);
-		hand.setVisible(true);
-		drawBoard();
-	}
-	
-	private void checkHypothesis(ArrayList<Player> players, Character c, Weapon w, Room r) {
-		for (Player p : players) {
-			notification("Asking "+p.name()+" about their cards.\nPlease hand the controls over to them.");
-			
-			notification(p.name()+", you have been asked to dispute a hypothesis made by "+board.getCurrentPlayer().name()
-					+"\nthat the murder was committed by "+c.name()+" in the "+r.name()
-					+"\nusing the "+w.name()+".");
-			
-			int cards = JOptionPane.showConfirmDialog(
-					this,
-					"Would you like to look at your cards?",
-					"Look at cards?",
-					JOptionPane.YES_NO_OPTION
-			);
-			
-			if (cards == JOptionPane.YES_OPTION) {
-				JPanel handCards = new JPanel();
-				handCards.setLayout(new BoxLayout(handCards, BoxLayout.Y_AXIS));
-				handCards.add(new JLabel(p.name()+"'s hand:"));
-				
-				JPanel cardPanel = new JPanel();
-				cardPanel.setLayout(new BoxLayout(cardPanel, BoxLayout.X_AXIS));
-				for (Card card : p.hand()) {
-					CardLabel lbl = new CardLabel(card.icon(""), card);
-					lbl.addMouseListener(this);
-					handCards.add(lbl);
-				}
-				
-				JOptionPane.showMessageDialog(
-						this,
-						handCards,
-						p.name()+"'s hand",
-						JOptionPane.PLAIN_MESSAGE
-				);
-			}
-			
-			while (true) {
-				String [] options = new String[]{
-						"Character ("+c.name()+")",
-						"Weapon ("+w.name()+")",
-						"Room ("+r.name()+")",
-						"None"
-				};
-				int ans = JOptionPane.showOptionDialog(
-						this,
-						"Which of these would you like to dispute?",
-						"Dispute",
-						JOptionPane.CANCEL_OPTION,
-						JOptionPane.QUESTION_MESSAGE,
-						null,
-						options,
-						options[3]
-				);
-				
-				if (ans == 0) {
-					// disputing character
-					for (Card card : p.hand()) {
-						if (card.name().equals(c.name())) {
-							notification(p.name()+" has disproven the hypothesis that the murder was"
-									+"\ncommited by "+c.name()+" in the "+r.name()+" with the\n"
-									+w.name()+" by showing that they are holding the "+card.name()+" card."
-									+"(Please hand the controls back to "+board.getCurrentPlayer().name()+".)");
-							return;
-						}
-					}
-					notification("You cannot dispute a hypothesis unless you have"
-								+"\none of the corresponding cards in your hand");
-				} else if (ans == 1) {
-					// disputing weapon
-					for (Card card : p.hand()) {
-						if (card.name().equals(w.name())) {
-							notification(p.name()+" has disproven the hypothesis that the murder was"
-									+"\ncommited by "+c.name()+" in the "+r.name()+" with the\n"
-									+w.name()+" by showing that they are holding the "+card.name()+" card."
-									+"(Please hand the controls back to "+board.getCurrentPlayer().name()+".)");
-							return;
-						}
-					}
-					notification("You cannot dispute a hypothesis unless you have"
-								+"\none of the corresponding cards in your hand");
-				} else if (ans == 2) {
-					// disputing room
-					for (Card card : p.hand()) {
-						if (card.name().equals(r.name())) {
-							notification(p.name()+" has disproven the hypothesis that the murder was"
-									+"\ncommited by "+c.name()+" in the "+r.name()+" with the\n"
-									+w.name()+" by showing that they are holding the "+card.name()+" card."
-									+"(Please hand the controls back to "+board.getCurrentPlayer().name()+".)");
-							return;
-						}
-					}
-					notification("You cannot dispute a hypothesis unless you have"
-								+"\none of the corresponding cards in your hand");
-				} else {
-					// claiming they cannot dispute or closed dialog
-					boolean found = false;
-					for (Card card : p.hand()) {
-						if (card.name().equals(r.name())
-								|| card.name().equals(c.name())
-								|| card.name().equals(w.name())) {
-							notification("If you have one of the cards corresponding to a"
-									+"\nhypothesis in your hand, you *must* dispute the"
-									+"\nhypothesis.");
-							found = true;
-							break;
-						}
-					}
-					if (found) continue;	// ask again
-					else break;		// move on to the next person
-				}
-			}
-		}
-	}
-	
-	public void accusation() {
-		ArrayList<Room> rooms = board.getRooms();
-		Room murderRoom = null;
-		do {
-			murderRoom = (Room) JOptionPane.showInputDialog(
-					this,
-					"Where do you think the murder was committed?",
-					"Murder location",
-					JOptionPane.QUESTION_MESSAGE,
-					null,
-					rooms.toArray(new Room[rooms.size()]),
-					rooms.get(0)
-			);
-		} while (murderRoom == null);
-		
-		ArrayList<Character> chars = board.getCharacters();
-		Character murderChar = null;
-		do {
-			murderChar = (Character) JOptionPane.showInputDialog(
-					this,
-					"Who do you think committed the murder?",
-					"Murderer",
-					JOptionPane.QUESTION_MESSAGE,
-					null,
-					chars.toArray(new Character[chars.size()]),
-					chars.get(0)
-			);
-		} while (murderChar == null);
-		
-		ArrayList<Weapon> weapons = board.getWeapons();
-		Weapon murderWeapon = null;
-		do {
-			murderWeapon = (Weapon) JOptionPane.showInputDialog(
-					this,
-					"Which weapon do you think was used for the murder?",
-					"Murder weapon",
-					JOptionPane.QUESTION_MESSAGE,
-					null,
-					weapons.toArray(new Weapon[weapons.size()]),
-					weapons.get(0)
-			);
-		} while (murderWeapon == null);
-		
-		notification("You have accused "+murderChar.name()+" of committing"
-				+"\nthe murder using the "+murderWeapon.name()+" in the\n"
-				+murderRoom.name()+".\n"
-				+"Please make sure that nobody else is watching the screen"
-				+"\nas the solution is revealed to you.");
-		
-		ArrayList<Card> envelope = board.getEnvelope();
-		// character, then weapon, then room
-		boolean incorrectScenario = false;
-		
-		String message = "You accused "+murderChar.name()+" of committing"
-						+"\nthe murder. Your answer was ";
-		if (envelope.get(0).name().equals(murderChar.name())) {
-			message += "correct.";
-		} else {
-			message += "incorrect.";
-			incorrectScenario = true;
-		}
-		notification(message);
-		
-		message = "You said that the murder was committed by"
-				+"\nusing the "+murderWeapon.name()+". Your"
-				+"\n answer was ";
-		if (envelope.get(1).name().equals(murderWeapon.name())) {
-			message += "correct.";
-		} else {
-			message += "incorrect.";
-			incorrectScenario = true;
-		}
-		notification(message);
-		
-		message = "You said that the murder was committed in"
-				+"\nthe "+murderRoom.name()+". Your answer was\n";
-		if (envelope.get(2).name().equals(murderRoom.name())) {
-			message += "correct.";
-		} else {
-			message += "incorrect.";
-			incorrectScenario = true;
-		}
-		notification(message);
-		
-		if (incorrectScenario) {
-			// kill the player and continue the game
-			board.getCurrentPlayer().die();
-			hand.setVisible(false);
-			drawBoard();
-			message = board.getCurrentPlayer().name()+" has made an incorrect accusation,\nand has therefore been eliminated.";
-			board.endTurn();
-			if (!board.gameOver()) {
-				notification(message);
-				hand.setVisible(true);
-				drawBoard();
-			}
-		} else {
-			// the player wins and the game stops
-			board.win();
-		}
-	}
-	
-	public void notification(String message) {
-		JOptionPane.showMessageDialog(this, message, "", JOptionPane.PLAIN_MESSAGE);
 	}
 	
 	public void startNewGame() {
@@ -622,110 +315,29 @@ public class GraphicsUI extends JFrame implements WindowListener, MouseListener
 	public void mouseClicked(MouseEvent e) {
 		if (e.getSource() instanceof CardLabel) {
 			CardLabel lbl = (CardLabel) e.getSource();
-			ImageIcon largeIcon = lbl.getCard().icon("_large");
+			Icon largeIcon = lbl.getCard().icon(true);
 			JOptionPane.showMessageDialog(this, "", lbl.getCard().name(), JOptionPane.INFORMATION_MESSAGE, largeIcon);
-		} else if (e.getSource() instanceof JLabel) {
-			if (board.gameOver()) return;	// no moving after game is done
-			
-			JLabel lbl = (JLabel) e.getSource();
-			Point p = gameBoard.findLabel(lbl);
-			if (p != null && board.getRemainingMoves() > 0) {	// should never be null here, but good to be safe
-				Character c = board.getCurrentPlayer().character();
-				
-				move(c.getRow(), c.getCol(), p.y, p.x);
-			}
 		}
 		
 	}
 	
-	public void move(int fromRow, int fromCol, int toRow, int toCol) {
+	// moves the current Player's character to the given square, if it can get there
+	private void moveCurrentPlayerTo(int toRow, int toCol) {
 		Character c = board.getCurrentPlayer().character();
-		int[][] grid = board.getGrid();
-		int[][] characters = board.getPlayerGrid();
 		
-		if (grid[toRow][toCol] >= 11) {
+		boolean moved;
+		if (board.getSquare(toRow, toCol) >= 11) {
 			// trying to take a secret passageway
-			Room passageRoom = board.getRoomForPassage(toRow, toCol);
-			if (c.location().equals(passageRoom)) {
-				Room endRoom = passageRoom.connection();
-				passageRoom.removeCharacter(c);
-				c.enterRoom(endRoom);
-				endRoom.addCharacter(c);
-				board.setRemainingMoves(0);
-				drawBoard();
-				hypothesise();
-			}
-		} else if (c.location() != null) {
-			// trying to exit a room
-			if (characters[toRow][toCol] == 0 && grid[toRow][toCol] == 1) {
-				if (c.location().exitToPoint(c, toRow, toCol)) {
-					characters[toRow][toCol] = c.toInt()+1;
-					c.location().removeCharacter(c);
-					c.leaveRoom();
-					c.setRow(toRow);
-					c.setCol(toCol);
-					board.decrementMoves();
-					drawBoard();
-				}
-			}
-		} else if (fromRow == toRow && fromCol != toCol) {
-			// user clicked in the same row as their character
-			
-			// first, check whether there is a room in the way
-			int[][] boardGrid = board.getGrid();
-			int[][] playerGrid = board.getPlayerGrid();
-			boolean failed = false;
-			for (int i = Math.min(fromCol, toCol); i <= Math.abs(fromCol-toCol); i++) {
-				if (boardGrid[toRow][i] != 1 || (playerGrid[toRow][i] != 0 && playerGrid[toRow][i] != c.toInt()+1)) {
-					failed = true;
-					break;
-				}
-			}
-			
-			if (!failed) {
-				Board.Direction dir = (fromCol-toCol > 0)? Direction.LEFT : Direction.RIGHT;
-				for (int i = 0; i < Math.abs(fromCol-toCol); i++) {
-					if (board.move(c, dir, board.origin())) {
-						board.decrementMoves();
-						if (c.location() != null) {
-							board.setRemainingMoves(0);
-							drawBoard();
-							hypothesise();
-						}
-						if (board.getRemainingMoves() == 0) break;
-					}
-				}
-				drawBoard();
-			}
-		} else if (fromCol == toCol && fromRow != toRow) {
-			// user clicked in the same column as their character
-			
-			// first, check whether there is a room in the way
-			int[][] boardGrid = board.getGrid();
-			int[][] playerGrid = board.getPlayerGrid();
-			boolean failed = false;
-			for (int i = Math.min(fromRow, toRow); i <= Math.abs(fromRow-toRow); i++) {
-				if (boardGrid[i][toCol] != 1 || (playerGrid[i][toCol] != 0 && playerGrid[i][toCol] != c.toInt()+1)) {
-					failed = true;
-					break;
-				}
-			}
-			
-			if (!failed) {
-				Board.Direction dir = (fromRow-toRow > 0)? Direction.UP : Direction.DOWN;
-				for (int i = 0; i < Math.abs(fromRow-toRow); i++) {
-					if (board.move(c, dir, board.origin())) {
-						board.decrementMoves();
-						if (c.location() != null) {
-							board.setRemainingMoves(0);
-							drawBoard();
-							hypothesise();
-						}
-						if (board.getRemainingMoves() == 0) break;
-					}
-				}
-				drawBoard();
-			}
+			moved = c.location() != null && board.takePassage(c, toRow, toCol);
+		} else {
+			// walks the whole way there in one go, or not at all
+			moved = board.moveTo(c, toRow, toCol);
+		}
+		if (moved) {
+			turn.moved();
+			if (turn.getPhase() == Phase.MOVE)
+				reachable.update(c, board.getRemainingMoves());
+			drawBoard();
 		}
 	}
 
@@ -1,5 +1,8 @@
 package cluedo.gui;
 
+import java.awt.CardLayout;
+import java.util.ArrayList;
+
 import javax.swing.BoxLayout;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -8,6 +11,11 @@ import cluedo.game.Board;
 import cluedo.game.Card;
 import cluedo.game.Player;
 
+/**
+ * Shows the hand of the current player. Once the cards have been dealt, a
+ * panel is built for each player's hand, and they are all kept, so that
+ * changing turns just swaps which one is shown.
+ */
 public class HandDrawer extends JPanel {
 	
 	private static final long serialVersionUID = 1L;
@@ -15,9 +23,13 @@ public class HandDrawer extends JPanel {
 	private Board b;
 	private Player p;
 	
+	private CardLayout hands = new CardLayout();
+	// the name of each player's panel, in seating order, once they are built
+	private String[] panels;
+	
 	public HandDrawer(Board b) {
 		this.b = b;
-		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+		setLayout(hands);
 	}
 	
 	public void drawBoard(GraphicsUI gui) {
@@ -25,25 +37,38 @@ public class HandDrawer extends JPanel {
 				|| b.getCurrentPlayer() == null)
 			return;	// already showing this player's cards/this player is null
 		
-		removeAll();	// remove current cards
+		if (panels == null) {
+			ArrayList<Player> players = b.getPlayers();
+			panels = new String[players.size()];
+			for (int i = 0; i < players.size(); i++) {
+				panels[i] = String.valueOf(i);
+				add(handPanel(players.get(i), gui), panels[i]);
+			}
+			revalidate();
+		}
 		
 		p = b.getCurrentPlayer();
+		hands.show(this, panels[b.getPlayers().indexOf(p)]);
+		repaint();
+	}
+	
+	// the name and cards of the given player
+	private JPanel handPanel(Player p, GraphicsUI gui) {
+		JPanel panel = new JPanel();
+		panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
 		
 		JLabel curName = new JLabel("<html>Current player:<br>"+p.name()+", playing as "+p.character().name()+"</html>");
-		add(curName);
-		
-		JPanel handPanel = new JPanel();
-		handPanel.setLayout(new BoxLayout(handPanel, BoxLayout.X_AXIS));
-		Card[] hand = p.hand();
+		panel.add(curName);
 		
-		for (Card c : hand) {
-			CardLabel lbl = new CardLabel(c.icon(""), c);
+		JPanel cardPanel = new JPanel();
+		cardPanel.setLayout(new BoxLayout(cardPanel, BoxLayout.X_AXIS));
+		for (Card c : p.hand()) {
+			CardLabel lbl = new CardLabel(c.icon(false), c);
 			lbl.addMouseListener(gui);
-			handPanel.add(lbl);
+			cardPanel.add(lbl);
 		}
+		panel.add(cardPanel);
 		
-		add(handPanel);
-		
-		revalidate();
+		return panel;
 	}
 }
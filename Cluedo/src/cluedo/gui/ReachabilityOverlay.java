@@ -0,0 +1,119 @@
+package cluedo.gui;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
+
+import cluedo.game.Board;
+import cluedo.game.Character;
+import cluedo.game.Reachability;
+
+/**
+ * Shows on the board every square and Room the current Player can get to
+ * with the moves they have left. The search is done on a thread of its own,
+ * so that painting never waits for it: where everything is on the Board is
+ * copied first, the copy is searched in the background, and the results are
+ * handed back to the event dispatch thread to be shown.
+ * 
+ * Each query is numbered, and any results which arrive after a later query
+ * has been started are thrown away, since the Player has moved since. After
+ * a move, the search only covers the squares which could be reached before
+ * it (see Reachability.limitTo), so it gets cheaper as the moves run out.
+ * 
+ * All of the methods must be called on the event dispatch thread.
+ */
+final class ReachabilityOverlay {
+	// a single thread, as only the latest query is ever wanted
+	private static final ExecutorService worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "reachability");
+			t.setDaemon(true);	// never keep the game running
+			return t;
+		}
+	});
+	
+	private final Board board;
+	private final GraphicsBoardDrawer drawer;
+	
+	// the number of the latest query, whose results are the only ones shown
+	private int latest = 0;
+	private Future<?> pending;
+	// the query whose results are being shown, or null if none are
+	private Reachability shown;
+	
+	/**
+	 * @param board		the Board being played
+	 * @param drawer	where to show the squares which can be reached
+	 */
+	ReachabilityOverlay(Board board, GraphicsBoardDrawer drawer) {
+		this.board = board;
+		this.drawer = drawer;
+	}
+	
+	/**
+	 * Starts working out where the given Character can get to at the start
+	 * of a turn, replacing whatever is shown once it is known.
+	 * 
+	 * @param c			the Character whose turn it is
+	 * @param moves		the number of moves it has
+	 */
+	void show(Character c, int moves) {
+		start(c, moves, null);
+	}
+	
+	/**
+	 * Starts working out where the given Character can get to now that it
+	 * has moved part of the way, using up some of its moves.
+	 * 
+	 * @param c			the Character whose turn it is
+	 * @param moves		the number of moves it has left
+	 */
+	void update(Character c, int moves) {
+		start(c, moves, shown);
+	}
+	
+	/**
+	 * Stops showing where the current Player can get to, and throws away the
+	 * results of any query still being worked out.
+	 */
+	void clear() {
+		latest++;
+		cancelPending();
+		shown = null;
+		drawer.showReachable(null, 0);
+	}
+	
+	private void start(Character c, final int moves, Reachability earlier) {
+		final int query = ++latest;
+		cancelPending();
+		
+		final Reachability reach = new Reachability(board);
+		reach.capture(c);
+		if (earlier != null)
+			reach.limitTo(earlier);
+		
+		pending = worker.submit(new Runnable() {
+			public void run() {
+				reach.compute(moves);
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						if (query != latest) return;	// out of date already
+						pending = null;
+						shown = reach;
+						drawer.showReachable(reach.squares(), reach.rooms());
+					}
+				});
+			}
+		});
+	}
+	
+	private void cancelPending() {
+		if (pending != null) {
+			pending.cancel(false);
+			pending = null;
+		}
+	}
+}
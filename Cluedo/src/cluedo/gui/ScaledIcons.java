@@ -0,0 +1,80 @@
+package cluedo.gui;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import javax.swing.Icon;
+
+/**
+ * Copies of the board's images scaled to each size of square they have been
+ * drawn at, so that each image is only ever scaled once per size, rather
+ * than every time it is painted. Images are scaled by whole multiples with
+ * nearest-neighbour sampling, so that they stay sharp, and smoothly
+ * otherwise.
+ */
+final class ScaledIcons {
+	// the size of a square at which the icons are drawn unscaled
+	private final int unscaled;
+	
+	// [size of a square in pixels] -> icon -> its scaled copy
+	private final HashMap<Integer, IdentityHashMap<Icon, Image>> sizes = new HashMap<Integer, IdentityHashMap<Icon, Image>>();
+	
+	/**
+	 * @param unscaled	the size of a square, in pixels, at which the icons are
+	 * 					their natural size
+	 */
+	ScaledIcons(int unscaled) {
+		this.unscaled = unscaled;
+	}
+	
+	/**
+	 * Returns the given icon scaled to suit squares of the given size,
+	 * scaling it if this has not been done before.
+	 * 
+	 * @param icon		the icon to scale
+	 * @param cell		the size of a square, in device pixels
+	 * @param gc		the screen the image is for, or null if unknown
+	 * @return			the scaled image
+	 */
+	Image get(Icon icon, int cell, GraphicsConfiguration gc) {
+		IdentityHashMap<Icon, Image> scaled = sizes.get(cell);
+		if (scaled == null) {
+			scaled = new IdentityHashMap<Icon, Image>();
+			sizes.put(cell, scaled);
+		}
+		
+		Image image = scaled.get(icon);
+		if (image == null) {
+			image = scale(icon, cell, gc);
+			scaled.put(icon, image);
+		}
+		return image;
+	}
+	
+	private Image scale(Icon icon, int cell, GraphicsConfiguration gc) {
+		// copied out on its own first, so that smooth scaling cannot pick up
+		// the pixels around it (such as the rest of a sprite atlas)
+		BufferedImage original = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = original.createGraphics();
+		icon.paintIcon(null, g, 0, 0);
+		g.dispose();
+		
+		int width = icon.getIconWidth() * cell / unscaled;
+		int height = icon.getIconHeight() * cell / unscaled;
+		BufferedImage image = (gc == null)? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+				: gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		
+		g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, (cell % unscaled == 0)?
+				RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR : RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+		g.drawImage(original, 0, 0, width, height, null);
+		g.dispose();
+		return image;
+	}
+}
@@ -0,0 +1,116 @@
+package cluedo.gui;
+
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+
+import javax.swing.BoxLayout;
+import javax.swing.ButtonGroup;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JRadioButton;
+import javax.swing.JTextField;
+
+import cluedo.game.Board;
+import cluedo.game.Character;
+
+/**
+ * Asks how many people are playing, then each of their names and which
+ * character they will play as. Everything is asked within this panel, one
+ * click at a time, rather than through dialogs which wait for an answer.
+ */
+public class SetupPanel extends JPanel {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Board board;
+	private Runnable ready;
+	
+	private JComboBox<Integer> playerCount = new JComboBox<Integer>(new Integer[]{3,4,5,6});
+	private JLabel prompt = new JLabel();
+	private JTextField nameField = new JTextField(30);
+	private ButtonGroup charButtons = new ButtonGroup();
+	private ArrayList<JRadioButton> buttons = new ArrayList<JRadioButton>();
+	private JLabel status = new JLabel(" ");
+	
+	/**
+	 * @param board		the Board to add the players to
+	 * @param ready		run once every player has been added
+	 */
+	public SetupPanel(Board board, Runnable ready) {
+		this.board = board;
+		this.ready = ready;
+		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+		
+		add(new JLabel("Welcome to Cluedo, the Great Detective Game!"));
+		add(new JLabel("How many people are playing?"));
+		playerCount.setMaximumSize(playerCount.getPreferredSize());
+		playerCount.setAlignmentX(Component.LEFT_ALIGNMENT);
+		add(playerCount);
+		
+		add(prompt);
+		nameField.setMaximumSize(nameField.getPreferredSize());
+		nameField.setAlignmentX(Component.LEFT_ALIGNMENT);
+		add(nameField);
+		
+		add(new JLabel("Which character will you play as?"));
+		for (Character c : board.getCharacters()) {
+			JRadioButton button = new JRadioButton(c.toString());
+			charButtons.add(button);
+			buttons.add(button);
+			add(button);
+		}
+		
+		JButton join = new JButton("Join the game");
+		join.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				addPlayer();
+			}
+		});
+		add(join);
+		add(status);
+		
+		askNextPlayer();
+	}
+	
+	private void addPlayer() {
+		String name = nameField.getText().trim();
+		if (name.isEmpty()) {
+			status.setText("Please enter your name.");
+			return;
+		}
+		
+		Character chosen = null;
+		for (int i = 0; i < buttons.size(); i++) {
+			if (buttons.get(i).isSelected())
+				chosen = board.getCharacters().get(i);
+		}
+		if (chosen == null) {
+			status.setText(name+", please select a character.");
+			return;
+		}
+		
+		board.addPlayer(name, chosen);
+		playerCount.setEnabled(false);	// fixed once somebody has joined
+		status.setText(name+" is playing as "+chosen.name()+".");
+		
+		if (board.getPlayers().size() == (Integer)playerCount.getSelectedItem()) {
+			ready.run();
+		} else {
+			askNextPlayer();
+		}
+	}
+	
+	private void askNextPlayer() {
+		prompt.setText("Player "+(board.getPlayers().size()+1)+", what is your name?");
+		nameField.setText("");
+		charButtons.clearSelection();
+		for (int i = 0; i < buttons.size(); i++) {
+			buttons.get(i).setEnabled(board.getCharacters().get(i).player() == null);
+		}
+		nameField.requestFocusInWindow();
+	}
+}
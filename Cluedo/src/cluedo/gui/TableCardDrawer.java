@@ -28,11 +28,12 @@ public class TableCardDrawer extends JPanel {
 			add(new JLabel("Table cards:"));
 			
 			for (Card c : cards) {
-				CardLabel lbl = new CardLabel(c.icon(""), c);
+				CardLabel lbl = new CardLabel(c.icon(false), c);
 				lbl.addMouseListener(gui);
 				add(lbl);
 			}
 			revalidate();
+			repaint();
 		}
 	}
 }
@@ -0,0 +1,317 @@
+package cluedo.gui;
+
+import java.awt.CardLayout;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+
+import cluedo.game.Board;
+import cluedo.game.Card;
+import cluedo.game.Character;
+import cluedo.game.GamePiece;
+import cluedo.game.Player;
+import cluedo.game.Room;
+import cluedo.game.Turn;
+import cluedo.game.Turn.Phase;
+import cluedo.game.Weapon;
+
+/**
+ * The controls for the phase the current Turn is in, such as the button to
+ * roll the dice, or the choices for a suggestion. There is a set of controls
+ * for each phase, and only those for the current one are shown. Every
+ * control just tells the Turn what was chosen and returns, so nothing ever
+ * waits for an answer; the Turn then says which phase comes next.
+ */
+public class TurnPanel extends JPanel {
+	
+	private static final long serialVersionUID = 1L;
+	
+	// the name of the controls for making an accusation, which are not a phase of their own
+	private static final String ACCUSING = "ACCUSING";
+	// how wide the text is wrapped to, in pixels
+	private static final int TEXT_WIDTH = 170;
+	
+	private Board board;
+	private GraphicsUI gui;
+	private Turn turn;
+	
+	private CardLayout cards = new CardLayout();
+	private JPanel phases = new JPanel(cards);
+	private JLabel status = new JLabel();
+	
+	private JLabel rollText = new JLabel(), suggestText = new JLabel(), refuteText = new JLabel();
+	private JLabel accuseText = new JLabel(), endText = new JLabel(), overText = new JLabel();
+	
+	private JComboBox<Character> suggestedSuspect, accusedSuspect;
+	private JComboBox<Weapon> suggestedWeapon, accusedWeapon;
+	private JComboBox<Room> accusedRoom;
+	
+	// the asked player's choices, only shown once they have the controls
+	private JButton showCards = new JButton("Show my cards");
+	private JPanel refuteChoices = new JPanel();
+	
+	// what the current player was told about their accusation
+	private String accusationResult;
+	
+	public TurnPanel(Board b, GraphicsUI g) {
+		board = b;
+		gui = g;
+		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+		
+		ArrayList<Character> chars = board.getCharacters();
+		ArrayList<Weapon> weapons = board.getWeapons();
+		ArrayList<Room> rooms = board.getRooms();
+		suggestedSuspect = new JComboBox<Character>(chars.toArray(new Character[chars.size()]));
+		suggestedWeapon = new JComboBox<Weapon>(weapons.toArray(new Weapon[weapons.size()]));
+		accusedSuspect = new JComboBox<Character>(chars.toArray(new Character[chars.size()]));
+		accusedWeapon = new JComboBox<Weapon>(weapons.toArray(new Weapon[weapons.size()]));
+		accusedRoom = new JComboBox<Room>(rooms.toArray(new Room[rooms.size()]));
+		
+		phases.add(phase(rollText,
+				button("Roll dice", new ActionListener() {
+					public void actionPerformed(ActionEvent e) {
+						turn.roll();
+					}
+				}),
+				accuseButton()), Phase.ROLL.name());
+		
+		phases.add(phase(text("Click on the board where you would like to move."),
+				accuseButton(),
+				endTurnButton()), Phase.MOVE.name());
+		
+		phases.add(phase(suggestText, suggestedSuspect, suggestedWeapon,
+				button("Make suggestion", new ActionListener() {
+					public void actionPerformed(ActionEvent e) {
+						turn.suggest((Character)suggestedSuspect.getSelectedItem(),
+								(Weapon)suggestedWeapon.getSelectedItem());
+					}
+				}),
+				button("Don't make a suggestion", new ActionListener() {
+					public void actionPerformed(ActionEvent e) {
+						turn.skipSuggestion();
+					}
+				})), Phase.SUGGEST.name());
+		
+		showCards.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				showRefuteChoices();
+			}
+		});
+		refuteChoices.setLayout(new BoxLayout(refuteChoices, BoxLayout.Y_AXIS));
+		refuteChoices.setAlignmentX(Component.LEFT_ALIGNMENT);
+		phases.add(phase(refuteText, showCards, refuteChoices), Phase.REFUTE.name());
+		
+		phases.add(phase(accuseText,
+				accuseButton(),
+				endTurnButton()), Phase.ACCUSE.name());
+		
+		phases.add(phase(text("Who committed the murder, with what, and where?"),
+				accusedSuspect, accusedWeapon, accusedRoom,
+				button("Accuse", new ActionListener() {
+					public void actionPerformed(ActionEvent e) {
+						accuse();
+					}
+				}),
+				button("Back", new ActionListener() {
+					public void actionPerformed(ActionEvent e) {
+						show(turn);
+					}
+				})), ACCUSING);
+		
+		phases.add(phase(endText,
+				button("Start the next turn", new ActionListener() {
+					public void actionPerformed(ActionEvent e) {
+						accusationResult = null;
+						turn.next();
+					}
+				})), Phase.END.name());
+		
+		phases.add(phase(overText,
+				button("Start new game", new ActionListener() {
+					public void actionPerformed(ActionEvent e) {
+						gui.startNewGame();
+					}
+				})), Phase.OVER.name());
+		
+		phases.setAlignmentX(Component.LEFT_ALIGNMENT);
+		add(phases);
+		status.setAlignmentX(Component.LEFT_ALIGNMENT);
+		add(status);
+	}
+	
+	/**
+	 * Shows the controls for the phase the given Turn is in.
+	 * 
+	 * @param t		the Turn being played
+	 */
+	public void show(Turn t) {
+		turn = t;
+		setStatus("");
+		Player p = turn.getPlayer();
+		
+		switch (turn.getPhase()) {
+		case ROLL:
+			setText(rollText, "It is "+p.name()+"'s turn, playing as "+p.character().name()+".");
+			break;
+		case SUGGEST:
+			setText(suggestText, "You have entered the "+p.character().location().name()
+					+". Who do you suggest committed the murder there, and with what?");
+			break;
+		case REFUTE:
+			Player asked = turn.getAsked();
+			setText(refuteText, "Please hand the controls over to "+asked.name()+".<br><br>"
+					+asked.name()+", you have been asked to refute "+p.name()+"'s suggestion that the murder was"
+					+" committed by "+turn.getSuspect().name()+" in the "+turn.getRoom().name()
+					+" using the "+turn.getWeapon().name()+".");
+			showCards.setVisible(true);
+			refuteChoices.removeAll();
+			break;
+		case ACCUSE:
+			if (turn.getSuspect() == null) {
+				setText(accuseText, "You may make an accusation, or end your turn.");
+			} else if (turn.getRefuter() == null) {
+				setText(accuseText, "Nobody could refute your suggestion.");
+			} else {
+				setText(accuseText, turn.getRefuter().name()+" refuted your suggestion by showing you the "
+						+turn.getShownCard().name()+" card. (Please hand the controls back to "+p.name()+".)");
+			}
+			break;
+		case END:
+			String next = board.getNextPlayer().name();
+			if (p.isAlive()) {
+				setText(endText, p.name()+"'s turn is over. Please hand the controls over to "+next+".");
+			} else {
+				setText(endText, accusationResult+"<br><br>"+p.name()+" has made an incorrect accusation,"
+						+" and has therefore been eliminated. Please hand the controls over to "+next+".");
+			}
+			break;
+		case OVER:
+			setText(overText, (accusationResult == null)? p.name()+" is the last player left, and has won!"
+					: accusationResult+"<br><br>"+p.name()+" has solved the murder, and has won!");
+			break;
+		default:
+			break;
+		}
+		cards.show(phases, turn.getPhase().name());
+	}
+	
+	/**
+	 * Shows a message, such as why a move was not allowed, until the phase
+	 * changes.
+	 * 
+	 * @param message	the message to show
+	 */
+	public void setStatus(String message) {
+		setText(status, message);
+	}
+	
+	/**
+	 * Ends the current Player's turn, if it is at a point where it can end.
+	 */
+	public void endTurn() {
+		if (turn == null) return;
+		Phase p = turn.getPhase();
+		if (p == Phase.ROLL || p == Phase.MOVE || p == Phase.ACCUSE)
+			turn.endTurn();
+	}
+	
+	// lets the player being asked choose one of their matching cards
+	private void showRefuteChoices() {
+		showCards.setVisible(false);
+		ArrayList<Card> matching = turn.getRefutingCards();
+		if (matching.isEmpty()) {
+			refuteChoices.add(button("I cannot refute it", new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					turn.cannotRefute();
+				}
+			}));
+		} else {
+			refuteChoices.add(text("Which card will you show?"));
+			for (final Card c : matching) {
+				JButton show = new JButton(c.icon(false));
+				show.setToolTipText(c.name());
+				show.setAlignmentX(Component.LEFT_ALIGNMENT);
+				show.addActionListener(new ActionListener() {
+					public void actionPerformed(ActionEvent e) {
+						turn.refute(c);
+					}
+				});
+				refuteChoices.add(show);
+			}
+		}
+		refuteChoices.revalidate();
+		refuteChoices.repaint();
+	}
+	
+	private void accuse() {
+		Character c = (Character)accusedSuspect.getSelectedItem();
+		Weapon w = (Weapon)accusedWeapon.getSelectedItem();
+		Room r = (Room)accusedRoom.getSelectedItem();
+		
+		int envelope = board.getEnvelopeMask();
+		accusationResult = "You accused "+c.name()+" of committing the murder using the "+w.name()
+				+" in the "+r.name()+". The murderer was "+correct(envelope, c)
+				+", the weapon was "+correct(envelope, w)
+				+" and the room was "+correct(envelope, r)+".";
+		turn.accuse(c, w, r);	// which moves on to the next phase
+	}
+	
+	private static String correct(int envelope, GamePiece accused) {
+		return ((envelope & Card.bitOf(accused)) != 0)? "correct" : "incorrect";
+	}
+	
+	private JButton accuseButton() {
+		return button("Make accusation", new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				setStatus("");
+				cards.show(phases, ACCUSING);
+			}
+		});
+	}
+	
+	private JButton endTurnButton() {
+		return button("End turn", new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				turn.endTurn();
+			}
+		});
+	}
+	
+	private static JButton button(String text, ActionListener l) {
+		JButton button = new JButton(text);
+		button.addActionListener(l);
+		return button;
+	}
+	
+	private static JLabel text(String text) {
+		JLabel label = new JLabel();
+		setText(label, text);
+		return label;
+	}
+	
+	// wraps the text to the width of the panel
+	private static void setText(JLabel label, String text) {
+		label.setText("<html><body style='width: "+TEXT_WIDTH+"px'>"+text+"</body></html>");
+	}
+	
+	// the controls for one phase, one above the other
+	private static JPanel phase(JComponent... parts) {
+		JPanel panel = new JPanel();
+		panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+		for (JComponent c : parts) {
+			c.setAlignmentX(Component.LEFT_ALIGNMENT);
+			if (c instanceof JComboBox)
+				c.setMaximumSize(c.getPreferredSize());
+			panel.add(c);
+		}
+		return panel;
+	}
+}
@@ -0,0 +1,74 @@
+package cluedo.sim;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import cluedo.game.Board;
+import cluedo.game.Card;
+import cluedo.game.Player;
+
+/**
+ * A policy which plays one seat of a simulated game. Every random decision a
+ * Bot makes must come from the generator it is given in setup, so that the
+ * whole game can be replayed from its seed.
+ * 
+ * @author Louis Thie
+ */
+public interface Bot {
+	/**
+	 * Called once, after the cards have been dealt.
+	 * 
+	 * @param board		the Board being played on
+	 * @param me		the Player this Bot controls
+	 * @param rand		the generator for all of this Bot's random decisions
+	 */
+	public void setup(Board board, Player me, SplittableRandom rand);
+	
+	/**
+	 * Uses up this turn's moves, through Board.move, Board.exitRoom and
+	 * Board.takePassage. The dice have already been rolled.
+	 * 
+	 * @param board		the Board being played on
+	 * @param me		the Player this Bot controls
+	 */
+	public void move(Board board, Player me);
+	
+	/**
+	 * Asks for a hypothesis after this Bot's Character has entered a Room.
+	 * The Room of the returned Scenario is ignored.
+	 * 
+	 * @param board		the Board being played on
+	 * @param me		the Player this Bot controls
+	 * @return			the hypothesis to make, or null to make none
+	 */
+	public Scenario suggest(Board board, Player me);
+	
+	/**
+	 * Asks this Bot which of its matching cards to show to the Player who
+	 * made a hypothesis.
+	 * 
+	 * @param suggester		the Player who made the hypothesis
+	 * @param matching		the Cards in this Bot's hand which dispute it
+	 * @return				one of the matching Cards
+	 */
+	public Card chooseCardToShow(Player suggester, ArrayList<Card> matching);
+	
+	/**
+	 * Tells this Bot the outcome of a hypothesis made by any Player.
+	 * 
+	 * @param suggester		the Player who made the hypothesis
+	 * @param s				the hypothesis
+	 * @param refuter		the Player who disputed it, or null if nobody could
+	 * @param shown			the Card shown, or null if this Bot was not the suggester
+	 */
+	public void observeSuggestion(Player suggester, Scenario s, Player refuter, Card shown);
+	
+	/**
+	 * Asks for an accusation at the end of this Bot's turn.
+	 * 
+	 * @param board		the Board being played on
+	 * @param me		the Player this Bot controls
+	 * @return			the accusation to make, or null to make none
+	 */
+	public Scenario accuse(Board board, Player me);
+}
@@ -0,0 +1,52 @@
+package cluedo.sim;
+
+import java.util.SplittableRandom;
+
+import cluedo.game.Board;
+import cluedo.game.Card;
+import cluedo.game.Deduction;
+import cluedo.game.GamePiece;
+import cluedo.game.Player;
+import cluedo.game.SuggestionResult;
+
+/**
+ * A SeekingBot which keeps a Deduction of everything it has seen, rather than
+ * only the cards shown to it. It treats every card it has ruled out of the
+ * envelope as seen, so it works out the murder from the other Players'
+ * refutations as well, and accuses as soon as it has.
+ * 
+ * @author Louis Thie
+ */
+public class DeducingBot extends SeekingBot {
+	private Deduction notes;
+	private Player me;
+	
+	@Override
+	public void setup(Board board, Player me, SplittableRandom rand) {
+		super.setup(board, me, rand);
+		this.me = me;
+		notes = new Deduction(board);
+		notes.knowHand(me);
+	}
+	
+	@Override
+	public void observeSuggestion(Player suggester, Scenario s, Player refuter, Card shown) {
+		super.observeSuggestion(suggester, s, refuter, shown);
+		notes.observe(suggester, Card.mask(s.character(), s.weapon(), s.room()), refuter,
+				(shown == null)? SuggestionResult.NONE : shown.id(), me);
+	}
+	
+	@Override
+	protected boolean hasSeen(GamePiece p) {
+		return notes.lacks(notes.envelope(), Card.idOf(p));
+	}
+	
+	/**
+	 * Returns this Bot's notebook.
+	 * 
+	 * @return	everything this Bot has worked out so far
+	 */
+	public Deduction notes() {
+		return notes;
+	}
+}
@@ -0,0 +1,75 @@
+package cluedo.sim;
+
+/**
+ * The outcome of one simulated game. Playing the game again from the same
+ * seed will always give the same result.
+ * 
+ * @author Louis Thie
+ */
+public class GameResult {
+	private final long seed;
+	private final int winnerSeat;
+	private final int winnerCharacter;
+	private final boolean solved;
+	private final int turns;
+	
+	/**
+	 * Constructs a GameResult.
+	 * 
+	 * @param seed				the seed the game was played from
+	 * @param winnerSeat		the index of the winning Player, or -1 if nobody won
+	 * @param winnerCharacter	the toInt() of the winner's Character, or -1 if nobody won
+	 * @param solved			whether the winner made a correct accusation
+	 * @param turns				how many turns were played
+	 */
+	public GameResult(long seed, int winnerSeat, int winnerCharacter, boolean solved, int turns) {
+		this.seed = seed;
+		this.winnerSeat = winnerSeat;
+		this.winnerCharacter = winnerCharacter;
+		this.solved = solved;
+		this.turns = turns;
+	}
+	
+	public long seed() {
+		return seed;
+	}
+	
+	public int winnerSeat() {
+		return winnerSeat;
+	}
+	
+	public int winnerCharacter() {
+		return winnerCharacter;
+	}
+	
+	/**
+	 * Returns whether the game was won by an accusation, rather than by
+	 * everyone else being eliminated.
+	 * 
+	 * @return	whether the murder was solved
+	 */
+	public boolean solved() {
+		return solved;
+	}
+	
+	/**
+	 * Returns whether the game ended before the turn limit.
+	 * 
+	 * @return	whether anybody won
+	 */
+	public boolean finished() {
+		return winnerSeat >= 0;
+	}
+	
+	public int turns() {
+		return turns;
+	}
+	
+	@Override
+	public String toString() {
+		if (!finished())
+			return "seed "+seed+": unfinished after "+turns+" turns";
+		return "seed "+seed+": won by seat "+(winnerSeat+1)+(solved? " (solved)" : " (last standing)")
+				+" after "+turns+" turns";
+	}
+}
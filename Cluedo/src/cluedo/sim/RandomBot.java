@@ -0,0 +1,155 @@
+package cluedo.sim;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import cluedo.game.Board;
+import cluedo.game.Card;
+import cluedo.game.Character;
+import cluedo.game.GamePiece;
+import cluedo.game.Player;
+import cluedo.game.Room;
+import cluedo.game.Weapon;
+
+/**
+ * A Bot which wanders the board at random, only suggests GamePieces it has
+ * not seen a Card for, and accuses as soon as there is just one unseen
+ * GamePiece of each kind left.
+ * 
+ * @author Louis Thie
+ */
+public class RandomBot implements Bot {
+	// no point trying forever when boxed in by other characters
+	private static final int MAX_ATTEMPTS = 50;
+	
+	private SplittableRandom rand;
+	// the Cards this Bot has seen, as a bitmask of Card ids
+	private int seen = 0;
+	
+	@Override
+	public void setup(Board board, Player me, SplittableRandom rand) {
+		this.rand = rand;
+		seen = me.handMask() | board.getFaceUpMask();
+	}
+
+	@Override
+	public void move(Board board, Player me) {
+		Character c = me.character();
+		
+		for (int attempt = 0; attempt < MAX_ATTEMPTS && board.getRemainingMoves() > 0; attempt++) {
+			randomStep(board, c);
+		}
+	}
+	
+	/**
+	 * Takes one step in a random direction, or out of the Room the Character
+	 * is in through a random door or passageway. The step may be rejected.
+	 * 
+	 * @param board		the Board being played on
+	 * @param c			the Character to move
+	 */
+	protected void randomStep(Board board, Character c) {
+		Room r = c.location();
+		if (r != null) {
+			if (r.hasConnection() && rand.nextInt(4) == 0) {
+				int[] passage = board.getPassageForRoom(r);
+				board.takePassage(c, passage[0], passage[1]);
+				return;
+			}
+			int[][] exits = r.getExits();
+			int[] exit = exits[rand.nextInt(exits.length)];
+			board.exitRoom(c, exit[0], exit[1]);
+		} else {
+			Board.Direction[] dirs = Board.Direction.values();
+			step(board, c, dirs[rand.nextInt(dirs.length)]);
+		}
+	}
+	
+	/**
+	 * Takes one step in the given direction, as the GUI would.
+	 * 
+	 * @param board		the Board being played on
+	 * @param c			the Character to move
+	 * @param d			the Direction to step in
+	 * @return			whether the step was taken
+	 */
+	protected boolean step(Board board, Character c, Board.Direction d) {
+		if (!board.move(c, d, board.origin()))
+			return false;
+		
+		board.decrementMoves();
+		if (c.location() != null) {
+			// entering a room ends the movement
+			board.setRemainingMoves(0);
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns whether this Bot has seen the Card for the given GamePiece.
+	 * 
+	 * @param p		the GamePiece to check
+	 * @return		whether it cannot be part of the murder
+	 */
+	protected boolean hasSeen(GamePiece p) {
+		return (seen & Card.bitOf(p)) != 0;
+	}
+	
+	/**
+	 * Returns the generator for all of this Bot's random decisions.
+	 * 
+	 * @return	this Bot's generator
+	 */
+	protected SplittableRandom rand() {
+		return rand;
+	}
+
+	@Override
+	public Scenario suggest(Board board, Player me) {
+		return new Scenario(pickUnseen(board.getCharacters()), pickUnseen(board.getWeapons()),
+				me.character().location());
+	}
+
+	@Override
+	public Card chooseCardToShow(Player suggester, ArrayList<Card> matching) {
+		return matching.get(rand.nextInt(matching.size()));
+	}
+
+	@Override
+	public void observeSuggestion(Player suggester, Scenario s, Player refuter, Card shown) {
+		if (shown != null)
+			seen |= shown.bit();
+	}
+
+	@Override
+	public Scenario accuse(Board board, Player me) {
+		Character c = onlyUnseen(board.getCharacters());
+		Weapon w = onlyUnseen(board.getWeapons());
+		Room r = onlyUnseen(board.getRooms());
+		
+		if (c == null || w == null || r == null)
+			return null;
+		return new Scenario(c, w, r);
+	}
+	
+	private <T extends GamePiece> T pickUnseen(ArrayList<T> pieces) {
+		ArrayList<T> unseen = new ArrayList<T>();
+		for (T p : pieces) {
+			if (!hasSeen(p)) unseen.add(p);
+		}
+		if (unseen.isEmpty())
+			return pieces.get(rand.nextInt(pieces.size()));
+		return unseen.get(rand.nextInt(unseen.size()));
+	}
+	
+	private <T extends GamePiece> T onlyUnseen(ArrayList<T> pieces) {
+		T found = null;
+		for (T p : pieces) {
+			if (!hasSeen(p)) {
+				if (found != null) return null;	// more than one left
+				found = p;
+			}
+		}
+		return found;
+	}
+}
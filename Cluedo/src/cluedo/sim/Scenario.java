@@ -0,0 +1,47 @@
+package cluedo.sim;
+
+import cluedo.game.Character;
+import cluedo.game.Room;
+import cluedo.game.Weapon;
+
+/**
+ * A murder scenario put forward by a Bot, either as a hypothesis or as an
+ * accusation.
+ * 
+ * @author Louis Thie
+ */
+public class Scenario {
+	private final Character character;
+	private final Weapon weapon;
+	private final Room room;
+	
+	/**
+	 * Constructs a Scenario from the given murder components.
+	 * 
+	 * @param character		the suspected murderer
+	 * @param weapon		the suspected murder weapon
+	 * @param room			the suspected murder location
+	 */
+	public Scenario(Character character, Weapon weapon, Room room) {
+		this.character = character;
+		this.weapon = weapon;
+		this.room = room;
+	}
+	
+	public Character character() {
+		return character;
+	}
+	
+	public Weapon weapon() {
+		return weapon;
+	}
+	
+	public Room room() {
+		return room;
+	}
+	
+	@Override
+	public String toString() {
+		return character.name()+" with the "+weapon.name()+" in the "+room.name();
+	}
+}
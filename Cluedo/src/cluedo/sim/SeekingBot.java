@@ -0,0 +1,108 @@
+package cluedo.sim;
+
+import cluedo.game.Board;
+import cluedo.game.Character;
+import cluedo.game.DistanceOracle;
+import cluedo.game.Player;
+import cluedo.game.Room;
+
+/**
+ * A Bot which heads straight for the nearest Room it has not seen a Card for,
+ * following the Board's DistanceOracle, and otherwise reasons like a
+ * RandomBot. Only falls back to random steps when boxed in by other
+ * Characters.
+ * 
+ * @author Louis Thie
+ */
+public class SeekingBot extends RandomBot {
+	// no point trying forever when boxed in by other characters
+	private static final int MAX_ATTEMPTS = 50;
+	
+	@Override
+	public void move(Board board, Player me) {
+		Character c = me.character();
+		DistanceOracle distances = board.getDistances();
+		Room target = chooseTarget(board, c, distances);
+		
+		for (int attempt = 0; attempt < MAX_ATTEMPTS && board.getRemainingMoves() > 0; attempt++) {
+			if (target == null || !stepTowards(board, c, target, distances))
+				randomStep(board, c);
+		}
+	}
+	
+	/**
+	 * Picks the nearest Room which this Bot has not seen a Card for, or just
+	 * the nearest Room if it has seen them all. The Room the Character started
+	 * the turn in cannot be re-entered, so it is never picked.
+	 */
+	private Room chooseTarget(Board board, Character c, DistanceOracle distances) {
+		Room best = null;
+		int bestSteps = 0;
+		boolean bestSeen = true;
+		
+		for (Room r : board.getRooms()) {
+			if (r.equals(board.origin())) continue;
+			int steps = distances.steps(c, r);
+			if (steps == DistanceOracle.UNREACHABLE) continue;
+			
+			boolean seen = hasSeen(r);
+			if (best == null || (bestSeen && !seen)
+					|| (bestSeen == seen && steps < bestSteps)) {
+				best = r;
+				bestSteps = steps;
+				bestSeen = seen;
+			}
+		}
+		return best;
+	}
+	
+	/**
+	 * Takes the one step which gets the Character closest to the target.
+	 * 
+	 * @return	whether a step was taken
+	 */
+	private boolean stepTowards(Board board, Character c, Room target, DistanceOracle distances) {
+		Room r = c.location();
+		if (r != null) {
+			int best = Integer.MAX_VALUE;
+			int[] bestExit = null;
+			for (int[] exit : r.getExits()) {
+				int steps = distances.stepsToRoom(exit[0], exit[1], target);
+				if (steps != DistanceOracle.UNREACHABLE && steps < best
+						&& board.isFree(exit[0], exit[1])) {
+					best = steps;
+					bestExit = exit;
+				}
+			}
+			if (r.connection() != null && distances.stepsBetweenRooms(r.connection(), target) < best) {
+				int[] passage = board.getPassageForRoom(r);
+				return board.takePassage(c, passage[0], passage[1]);
+			}
+			return bestExit != null && board.exitRoom(c, bestExit[0], bestExit[1]);
+		}
+		
+		int row = c.getRow(), col = c.getCol();
+		int best = distances.stepsToRoom(row, col, target);
+		Board.Direction bestDir = null;
+		
+		for (Board.Direction d : Board.Direction.values()) {
+			int toRow = row + d.rowStep(), toCol = col + d.colStep();
+			if (toRow < 0 || toRow >= Board.ROWS || toCol < 0 || toCol >= Board.COLS)
+				continue;
+			
+			if (board.getRoomByCode(board.getSquare(toRow, toCol)) == target
+					&& target.canEnter(row, col, toRow, toCol)) {
+				bestDir = d;
+				break;
+			}
+			int steps = distances.stepsToRoom(toRow, toCol, target);
+			if (steps != DistanceOracle.UNREACHABLE && steps < best
+					&& board.isFree(toRow, toCol)) {
+				best = steps;
+				bestDir = d;
+			}
+		}
+		
+		return bestDir != null && step(board, c, bestDir);
+	}
+}
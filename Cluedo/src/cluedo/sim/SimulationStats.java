@@ -0,0 +1,97 @@
+package cluedo.sim;
+
+import cluedo.game.Character;
+
+/**
+ * Totals of the results of many simulated games. Each worker keeps its own
+ * SimulationStats, which are merged once the workers are done.
+ * 
+ * @author Louis Thie
+ */
+public class SimulationStats {
+	private static final int SEATS = Character.CharacterName.values().length;
+	
+	private long games;
+	private long unfinished;
+	private long solved;
+	private long totalTurns;
+	private long[] winsBySeat = new long[SEATS];
+	private long[] winsByCharacter = new long[SEATS];
+	
+	/**
+	 * Adds the result of one game to these totals.
+	 * 
+	 * @param r		the result to add
+	 */
+	public void add(GameResult r) {
+		games++;
+		totalTurns += r.turns();
+		if (!r.finished()) {
+			unfinished++;
+			return;
+		}
+		if (r.solved()) solved++;
+		winsBySeat[r.winnerSeat()]++;
+		winsByCharacter[r.winnerCharacter()]++;
+	}
+	
+	/**
+	 * Adds all of another SimulationStats' totals to these.
+	 * 
+	 * @param other		the totals to add
+	 */
+	public void merge(SimulationStats other) {
+		games += other.games;
+		unfinished += other.unfinished;
+		solved += other.solved;
+		totalTurns += other.totalTurns;
+		for (int i = 0; i < SEATS; i++) {
+			winsBySeat[i] += other.winsBySeat[i];
+			winsByCharacter[i] += other.winsByCharacter[i];
+		}
+	}
+	
+	public long games() {
+		return games;
+	}
+	
+	public long unfinished() {
+		return unfinished;
+	}
+	
+	public long solved() {
+		return solved;
+	}
+	
+	public long winsBySeat(int seat) {
+		return winsBySeat[seat];
+	}
+	
+	public long winsByCharacter(Character.CharacterName name) {
+		return winsByCharacter[name.ordinal()];
+	}
+	
+	public double averageTurns() {
+		return games == 0? 0 : (double) totalTurns / games;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%d games, %d solved, %d unfinished, %.1f turns on average%n",
+				games, solved, unfinished, averageTurns()));
+		sb.append("Wins by seat:");
+		for (int i = 0; i < SEATS; i++) {
+			sb.append(String.format(" %d=%.2f%%", i+1, percent(winsBySeat[i])));
+		}
+		sb.append(String.format("%nWins by character:"));
+		for (Character.CharacterName name : Character.CharacterName.values()) {
+			sb.append(String.format(" %s=%.2f%%", name, percent(winsByCharacter[name.ordinal()])));
+		}
+		return sb.toString();
+	}
+	
+	private double percent(long count) {
+		return games == 0? 0 : 100.0 * count / games;
+	}
+}
@@ -0,0 +1,228 @@
+package cluedo.sim;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import cluedo.game.Board;
+import cluedo.game.Card;
+import cluedo.game.CardRevealer;
+import cluedo.game.Character;
+import cluedo.game.Player;
+import cluedo.game.Room;
+import cluedo.game.SuggestionResult;
+
+/**
+ * Plays complete games of Cluedo between Bots, with no UI. Batches of games
+ * are spread across all cores on a ForkJoinPool. Every game is played from
+ * its own seed, which is derived from the batch's seed and the game's index,
+ * so any single game can be replayed by passing its seed to playGame.
+ * 
+ * @author Louis Thie
+ */
+public class Simulator {
+	// games per task before a task stops splitting itself in half
+	private static final int GAMES_PER_TASK = 64;
+	// the golden ratio, used to spread consecutive game indices across the seeds
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	
+	private final int playerCount;
+	private final Supplier<Bot> bots;
+	private final int maxTurns;
+	
+	/**
+	 * Constructs a Simulator.
+	 * 
+	 * @param playerCount	how many Players each game has, from 1 to 6
+	 * @param bots			makes a new Bot for every seat of every game
+	 * @param maxTurns		how many turns a game may last before it is abandoned
+	 */
+	public Simulator(int playerCount, Supplier<Bot> bots, int maxTurns) {
+		if (playerCount < 1 || playerCount > Character.CharacterName.values().length)
+			throw new IllegalArgumentException("Cannot play with "+playerCount+" players.");
+		
+		this.playerCount = playerCount;
+		this.bots = bots;
+		this.maxTurns = maxTurns;
+	}
+	
+	/**
+	 * Returns the seed of the given game of a batch.
+	 * 
+	 * @param batchSeed		the seed of the batch
+	 * @param game			the index of the game within the batch
+	 * @return				the seed the game is played from
+	 */
+	public static long gameSeed(long batchSeed, long game) {
+		return new SplittableRandom(batchSeed + game * GOLDEN_GAMMA).nextLong();
+	}
+	
+	/**
+	 * Plays a batch of games on the common ForkJoinPool.
+	 * 
+	 * @param batchSeed		the seed of the batch
+	 * @param games			how many games to play
+	 * @return				the totals of all the games' results
+	 */
+	public SimulationStats run(long batchSeed, long games) {
+		return run(ForkJoinPool.commonPool(), batchSeed, games);
+	}
+	
+	/**
+	 * Plays a batch of games on the given ForkJoinPool.
+	 * 
+	 * @param pool			the pool to play the games on
+	 * @param batchSeed		the seed of the batch
+	 * @param games			how many games to play
+	 * @return				the totals of all the games' results
+	 */
+	public SimulationStats run(ForkJoinPool pool, long batchSeed, long games) {
+		return pool.invoke(new BatchTask(batchSeed, 0, games));
+	}
+	
+	/**
+	 * Plays one complete game.
+	 * 
+	 * @param seed	the seed to play the game from
+	 * @return		the result of the game
+	 */
+	public GameResult playGame(long seed) {
+		SplittableRandom rand = new SplittableRandom(seed);
+		Board board = new Board(rand.nextLong());
+		
+		// shuffle the characters so that no character is tied to a seat
+		ArrayList<Character> chars = new ArrayList<Character>(board.getCharacters());
+		for (int i = chars.size()-1; i > 0; i--) {
+			chars.set(i, chars.set(rand.nextInt(i+1), chars.get(i)));
+		}
+		
+		Bot[] seats = new Bot[playerCount];
+		for (int i = 0; i < playerCount; i++) {
+			board.addPlayer("Bot "+(i+1), chars.get(i));
+			seats[i] = bots.get();
+		}
+		board.startGame();
+		
+		ArrayList<Player> players = board.getPlayers();
+		for (int i = 0; i < playerCount; i++) {
+			seats[i].setup(board, players.get(i), rand.split());
+		}
+		
+		CardRevealer revealer = new BotRevealer(seats, players);
+		board.startTurn();
+		int turns = 0;
+		Player winner = null;
+		boolean solved = false;
+		
+		while (!board.gameOver() && turns < maxTurns) {
+			Player p = board.getCurrentPlayer();
+			Bot bot = seats[players.indexOf(p)];
+			turns++;
+			
+			bot.move(board, p);
+			
+			Room r = p.character().location();
+			if (r != null && r != board.origin()) {
+				suggest(board, seats, revealer, p, bot.suggest(board, p));
+			}
+			
+			Scenario accusation = bot.accuse(board, p);
+			if (accusation != null) {
+				if (board.isSolution(accusation.character(), accusation.weapon(), accusation.room())) {
+					winner = p;
+					solved = true;
+					board.win();
+					break;
+				}
+				p.die();
+			}
+			board.endTurn();
+		}
+		
+		if (winner == null && board.gameOver()) {
+			// everybody else has been eliminated
+			for (Player p : players) {
+				if (p.isAlive()) winner = p;
+			}
+		}
+		
+		if (winner == null)
+			return new GameResult(seed, -1, -1, false, turns);
+		return new GameResult(seed, players.indexOf(winner), winner.character().toInt(), solved, turns);
+	}
+	
+	private void suggest(Board board, Bot[] seats, CardRevealer revealer, Player suggester, Scenario s) {
+		if (s == null) return;
+		
+		ArrayList<Player> players = board.getPlayers();
+		SuggestionResult result = board.suggest(s.character(), s.weapon(), revealer);
+		
+		s = new Scenario(s.character(), s.weapon(), suggester.character().location());
+		int shown = result.shownTo(suggester);
+		Card card = (shown == SuggestionResult.NONE)? null : board.getCard(shown);
+		for (int i = 0; i < seats.length; i++) {
+			seats[i].observeSuggestion(suggester, s, result.refuter(),
+					players.get(i) == suggester? card : null);
+		}
+	}
+	
+	/**
+	 * Lets the refuter's Bot choose which card to show, from the matching
+	 * Cards in the order they were dealt.
+	 */
+	private static class BotRevealer implements CardRevealer {
+		private final Bot[] seats;
+		private final ArrayList<Player> players;
+		
+		BotRevealer(Bot[] seats, ArrayList<Player> players) {
+			this.seats = seats;
+			this.players = players;
+		}
+		
+		@Override
+		public int reveal(Player refuter, Player suggester, int matching) {
+			ArrayList<Card> cards = new ArrayList<Card>(3);
+			for (Card c : refuter.hand()) {
+				if ((c.bit() & matching) != 0)
+					cards.add(c);
+			}
+			return seats[players.indexOf(refuter)].chooseCardToShow(suggester, cards).id();
+		}
+	}
+	
+	/**
+	 * Plays the games [from, to) of a batch, splitting itself in half until
+	 * there are few enough games to play them directly.
+	 */
+	private class BatchTask extends RecursiveTask<SimulationStats> {
+		private static final long serialVersionUID = 1L;
+		
+		private final long batchSeed, from, to;
+		
+		BatchTask(long batchSeed, long from, long to) {
+			this.batchSeed = batchSeed;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected SimulationStats compute() {
+			if (to - from <= GAMES_PER_TASK) {
+				SimulationStats stats = new SimulationStats();
+				for (long i = from; i < to; i++) {
+					stats.add(playGame(gameSeed(batchSeed, i)));
+				}
+				return stats;
+			}
+			
+			long mid = (from + to) >>> 1;
+			BatchTask left = new BatchTask(batchSeed, from, mid);
+			left.fork();
+			SimulationStats stats = new BatchTask(batchSeed, mid, to).compute();
+			stats.merge(left.join());
+			return stats;
+		}
+	}
+}
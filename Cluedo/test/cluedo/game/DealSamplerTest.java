@@ -0,0 +1,52 @@
+package cluedo.game;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/**
+ * Checks that DealSampler only draws deals which agree with what was seen,
+ * and draws each of them about equally often (see SeenGame).
+ * 
+ * @author Louis Thie
+ */
+public class DealSamplerTest {
+	// how many times each deal is drawn on average
+	private static final int DRAWS = 200;
+	// how many standard deviations a deal's count may be from the average
+	private static final double SPREAD = 6;
+	
+	@Test
+	public void drawsEveryDealEquallyOften() {
+		for (int count = 3; count <= 6; count++) {
+			for (long seed = 1; seed <= SeenGame.GAMES; seed++) {
+				SeenGame seen = new SeenGame(count, seed);
+				int deals = seen.deals.size();
+				HashMap<String, Integer> index = new HashMap<String, Integer>();
+				for (int i = 0; i < deals; i++) {
+					index.put(SeenGame.key(seen.deals.get(i)), i);
+				}
+				
+				DealSampler sampler = new DealSampler(seen.notes, new SplittableRandom(seed));
+				int[] drawn = new int[deals];
+				for (int i = 0; i < DRAWS * deals; i++) {
+					assertTrue(sampler.sample());
+					Integer deal = index.get(SeenGame.key(sampler.hands()));
+					assertNotNull(deal);
+					drawn[deal]++;
+				}
+				
+				// each draw is a deal chosen evenly, so each count is binomial
+				double p = 1.0 / deals;
+				double sd = Math.sqrt(DRAWS * deals * p * (1 - p));
+				for (int n : drawn) {
+					assertTrue(Math.abs(n - DRAWS) <= SPREAD * sd + 1);
+				}
+			}
+		}
+	}
+}
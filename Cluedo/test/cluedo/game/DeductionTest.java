@@ -0,0 +1,44 @@
+package cluedo.game;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks that a Deduction never rules out a deal which agrees with what was
+ * seen (see SeenGame).
+ * 
+ * @author Louis Thie
+ */
+public class DeductionTest {
+	@Test
+	public void agreesWithEveryDeal() {
+		for (int count = 3; count <= 6; count++) {
+			for (long seed = 1; seed <= SeenGame.GAMES; seed++) {
+				SeenGame seen = new SeenGame(count, seed);
+				Deduction notes = seen.notes;
+				assertTrue(notes.isConsistent());
+				assertTrue(agrees(notes, seen.truth));
+				for (int[] deal : seen.deals) {
+					assertTrue(agrees(notes, deal));
+				}
+			}
+		}
+	}
+	
+	// whether the deal holds every card the notes say each owner has, and none they lack
+	private static boolean agrees(Deduction notes, int[] deal) {
+		for (int owner = 0; owner < deal.length; owner++) {
+			if ((deal[owner] & notes.hasMask(owner)) != notes.hasMask(owner)
+					|| (deal[owner] & notes.lacksMask(owner)) != 0)
+				return false;
+			if (owner == notes.envelope()) continue;
+			int[] clauses = notes.clauses(owner);
+			for (int i = 0; i < notes.openClauses(owner); i++) {
+				if ((deal[owner] & clauses[i]) == 0)
+					return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,34 @@
+package cluedo.game;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Checks EnvelopeOdds against every deal which agrees with what was seen (see
+ * SeenGame).
+ * 
+ * @author Louis Thie
+ */
+public class EnvelopeOddsTest {
+	@Test
+	public void matchesEveryDeal() {
+		for (int count = 3; count <= 6; count++) {
+			for (long seed = 1; seed <= SeenGame.GAMES; seed++) {
+				SeenGame seen = new SeenGame(count, seed);
+				EnvelopeOdds odds = new EnvelopeOdds(seen.notes);
+				assertEquals(seen.deals.size(), odds.consistentDeals());
+				
+				long[] inEnvelope = new long[Card.COUNT];
+				for (int[] deal : seen.deals) {
+					for (int cards = deal[count]; cards != 0; cards &= cards - 1) {
+						inEnvelope[Integer.numberOfTrailingZeros(cards)]++;
+					}
+				}
+				for (int card = 0; card < Card.COUNT; card++) {
+					assertEquals((double) inEnvelope[card] / seen.deals.size(), odds.probability(card), 1e-12);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package cluedo.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Checks that games played without a window never load any images, nor the
+ * parts of the JDK they are drawn with. This is done in a new JVM, as the
+ * classes a test loads stay loaded for the rest of the tests.
+ * 
+ * @author Louis Thie
+ */
+public class HeadlessTest {
+	@Test
+	public void simulationLoadsNoImages() throws IOException, InterruptedException {
+		String java = System.getProperty("java.home")+File.separator+"bin"+File.separator+"java";
+		ProcessBuilder builder = new ProcessBuilder(java, "-verbose:class",
+				"-cp", System.getProperty("java.class.path"),
+				"cluedo.Main", "-simulate", "5", "-seed", "7", "-players", "4");
+		builder.redirectErrorStream(true);
+		Process process = builder.start();
+		
+		boolean played = false;
+		try (BufferedReader out = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = out.readLine()) != null) {
+				assertFalse(line, line.contains("cluedo.game.SpriteAtlas"));
+				assertFalse(line, line.contains("cluedo.game.ImageAsset"));
+				assertFalse(line, line.contains("java.awt."));
+				assertFalse(line, line.contains("javax.swing."));
+				if (line.contains("games"))
+					played = true;
+			}
+		}
+		assertEquals(0, process.waitFor());
+		assertTrue(played);
+	}
+}
@@ -0,0 +1,162 @@
+package cluedo.game;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * A game seen by its first Player, along with every deal which agrees with
+ * what they have seen, listed one by one, to check what is worked out from
+ * it against. The game is played until few enough cards are unknown for that
+ * to be quick: random suggestions are made and answered as they would be in
+ * a real game, then the owners of some of the other cards are shown.
+ * 
+ * @author Louis Thie
+ */
+final class SeenGame {
+	/**
+	 * How many games of each size the tests look at.
+	 */
+	static final int GAMES = 25;
+	
+	// how many cards are left unknown, which keeps the number of deals small
+	private static final int UNKNOWN = 9;
+	private static final int SUGGESTIONS = 10;
+	
+	final ArrayList<Player> players;
+	final Deduction notes;
+	// indexed by owner, the cards really held
+	final int[] truth;
+	// each deal is the cards held, indexed by owner
+	final ArrayList<int[]> deals = new ArrayList<int[]>();
+	
+	// what was seen: the suggestions, and who was shown to hold which cards
+	private final ArrayList<int[]> suggestions = new ArrayList<int[]>();
+	private final int[] known;
+	private final int[] room;
+	
+	SeenGame(int count, long seed) {
+		Board board = new Board(seed);
+		ArrayList<Character> chars = board.getCharacters();
+		for (int i = 0; i < count; i++) {
+			board.addPlayer("Player "+(i+1), chars.get(i));
+		}
+		board.startGame();
+		players = board.getPlayers();
+		Player viewer = players.get(0);
+		notes = new Deduction(board);
+		
+		int envelope = notes.envelope();
+		truth = new int[count+1];
+		for (int p = 0; p < count; p++) {
+			truth[p] = players.get(p).handMask();
+		}
+		truth[envelope] = board.getEnvelopeMask();
+		known = new int[count+1];
+		
+		notes.knowHand(viewer);
+		known[0] = truth[0];
+		
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int i = 0; i < SUGGESTIONS; i++) {
+			int suggester = random.nextInt(count);
+			int cards = 1 << (Card.FIRST_CHARACTER + random.nextInt(Card.FIRST_WEAPON - Card.FIRST_CHARACTER))
+					| 1 << (Card.FIRST_WEAPON + random.nextInt(Card.FIRST_ROOM - Card.FIRST_WEAPON))
+					| 1 << (Card.FIRST_ROOM + random.nextInt(Card.COUNT - Card.FIRST_ROOM));
+			int refuter = refuter(truth, suggester, cards);
+			int shown = SuggestionResult.NONE;
+			if (suggester == 0 && refuter >= 0)
+				shown = Integer.numberOfTrailingZeros(truth[refuter] & cards);
+			suggestions.add(new int[]{suggester, cards, refuter, shown});
+			notes.observe(players.get(suggester), cards, (refuter < 0)? null : players.get(refuter), shown, viewer);
+		}
+		
+		// the owners of other cards are shown until few are left unknown
+		int unknown = notes.inPlay() & ~truth[0];
+		while (Integer.bitCount(unknown) > UNKNOWN) {
+			int card = pick(unknown, random);
+			int owner = ownerOf(truth, card);
+			notes.sawCard(owner, card);
+			known[owner] |= 1 << card;
+			unknown &= ~(1 << card);
+		}
+		
+		room = new int[count+1];
+		for (int owner = 0; owner <= count; owner++) {
+			room[owner] = notes.handSize(owner) - Integer.bitCount(known[owner]);
+		}
+		deal(unknown, known.clone());
+	}
+	
+	// lists every way of dealing the given cards which agrees with the suggestions
+	private void deal(int cards, int[] hands) {
+		if (cards == 0) {
+			if (agrees(hands))
+				deals.add(hands.clone());
+			return;
+		}
+		int card = Integer.numberOfTrailingZeros(cards);
+		for (int owner = 0; owner < hands.length; owner++) {
+			if (room[owner] == 0) continue;
+			int bit = 1 << card;
+			if (owner == notes.envelope() && (hands[owner] & kindOf(card)) != 0) continue;
+			room[owner]--;
+			hands[owner] |= bit;
+			deal(cards & ~bit, hands);
+			hands[owner] &= ~bit;
+			room[owner]++;
+		}
+	}
+	
+	private boolean agrees(int[] hands) {
+		for (int[] s : suggestions) {
+			int refuter = refuter(hands, s[0], s[1]);
+			if (refuter != s[2])
+				return false;
+			if (s[3] != SuggestionResult.NONE && (hands[refuter] & (1 << s[3])) == 0)
+				return false;
+		}
+		return true;
+	}
+	
+	// the seat of the first Player after the suggester who could refute, or -1
+	private static int refuter(int[] hands, int suggester, int cards) {
+		int players = hands.length - 1;
+		for (int i = 1; i < players; i++) {
+			int p = (suggester + i) % players;
+			if ((hands[p] & cards) != 0)
+				return p;
+		}
+		return -1;
+	}
+	
+	private static int ownerOf(int[] hands, int card) {
+		for (int owner = 0; owner < hands.length; owner++) {
+			if ((hands[owner] & (1 << card)) != 0)
+				return owner;
+		}
+		throw new IllegalArgumentException("Nobody holds card "+card);
+	}
+	
+	private static int kindOf(int card) {
+		if ((Card.CHARACTERS & (1 << card)) != 0) return Card.CHARACTERS;
+		return ((Card.WEAPONS & (1 << card)) != 0)? Card.WEAPONS : Card.ROOMS;
+	}
+	
+	private static int pick(int cards, SplittableRandom random) {
+		for (int n = random.nextInt(Integer.bitCount(cards)); n > 0; n--) {
+			cards &= cards - 1;
+		}
+		return Integer.numberOfTrailingZeros(cards);
+	}
+	
+	/**
+	 * Returns a deal as a string, to tell deals apart by.
+	 */
+	static String key(int[] deal) {
+		StringBuilder key = new StringBuilder();
+		for (int cards : deal) {
+			key.append(cards).append(',');
+		}
+		return key.toString();
+	}
+}
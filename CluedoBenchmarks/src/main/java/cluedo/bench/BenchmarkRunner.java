@@ -0,0 +1,27 @@
+package cluedo.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so that every result
+ * comes with its allocation rate as well as its throughput. Accepts the usual
+ * JMH command line options.
+ * 
+ * @author Louis Thie
+ */
+public class BenchmarkRunner {
+	public static void main(String[] args) throws Exception {
+		System.setProperty("java.awt.headless", "true");
+		
+		Options opts = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.jvmArgsAppend("-Djava.awt.headless=true")
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(opts).run();
+	}
+}
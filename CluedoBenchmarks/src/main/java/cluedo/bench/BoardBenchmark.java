@@ -0,0 +1,104 @@
+package cluedo.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import cluedo.game.Board;
+import cluedo.game.Card;
+import cluedo.game.Player;
+
+/**
+ * Benchmarks setting up a Board and the lookups done on it every turn.
+ * 
+ * @author Louis Thie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+	private Board game;
+	
+	/**
+	 * A fresh Board for every invocation of startGame. Kept apart from the
+	 * other benchmarks' state so they do not pay for setting it up.
+	 */
+	@State(Scope.Thread)
+	public static class Unstarted {
+		Board board;
+		
+		@Setup(Level.Invocation)
+		public void setup() {
+			board = Games.newBoard(6);
+		}
+	}
+	
+	@Setup
+	public void setupGame() {
+		game = Games.newGame(6);
+	}
+	
+	/**
+	 * setupChars, setupRooms, setupWeapons, setupPack and setupGrids.
+	 */
+	@Benchmark
+	public Board newBoard() {
+		return new Board(Games.SEED);
+	}
+	
+	/**
+	 * Mostly dealCards, which is private; startGame also places the
+	 * characters and weapons.
+	 */
+	@Benchmark
+	public Board startGame(Unstarted unstarted) {
+		unstarted.board.startGame();
+		return unstarted.board;
+	}
+	
+	@Benchmark
+	public ArrayList<Player> getHypoPlayers() {
+		return game.getHypoPlayers();
+	}
+	
+	@Benchmark
+	public void getRoomByCode(Blackhole bh) {
+		for (int code = 2; code <= 10; code++) {
+			bh.consume(game.getRoomByCode(code));
+		}
+	}
+	
+	@Benchmark
+	public void getCharacterByCode(Blackhole bh) {
+		for (int code = 1; code <= 6; code++) {
+			bh.consume(game.getCharacterByCode(code));
+		}
+	}
+	
+	/**
+	 * Whether each Player could refute a suggestion, as asked of every
+	 * Player after every suggestion.
+	 */
+	@Benchmark
+	public void canRefute(Blackhole bh) {
+		int suggestion = Card.mask(game.getCharacters().get(0), game.getWeapons().get(0), game.getRooms().get(0));
+		for (Player p : game.getPlayers()) {
+			bh.consume(p.canRefute(suggestion));
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package cluedo.bench;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import cluedo.game.Board;
+import cluedo.game.Card;
+import cluedo.game.Character;
+import cluedo.game.Deduction;
+import cluedo.game.Player;
+import cluedo.game.SuggestionResult;
+
+/**
+ * Sets up the games the benchmarks are run against.
+ * 
+ * @author Louis Thie
+ */
+final class Games {
+	// every benchmark plays the same game, so runs can be compared
+	static final long SEED = 42;
+	
+	private Games() {}
+	
+	/**
+	 * Returns a Board with the given number of players added, but not started.
+	 */
+	static Board newBoard(int players) {
+		Board b = new Board(SEED);
+		ArrayList<Character> chars = b.getCharacters();
+		for (int i = 0; i < players; i++) {
+			b.addPlayer("Player "+(i+1), chars.get(i));
+		}
+		return b;
+	}
+	
+	/**
+	 * Returns a started Board with the given number of players, on the first turn.
+	 */
+	static Board newGame(int players) {
+		Board b = newBoard(players);
+		b.startGame();
+		b.startTurn();
+		return b;
+	}
+	
+	/**
+	 * Returns the first Player's notebook for a new game with the given number
+	 * of players, after the given number of random suggestions. Each is
+	 * answered by the first Player after the suggester who can, showing their
+	 * lowest matching card.
+	 */
+	static Deduction notesAfter(int players, int suggestions) {
+		Board b = newGame(players);
+		ArrayList<Player> seats = b.getPlayers();
+		Player viewer = seats.get(0);
+		Deduction notes = new Deduction(b);
+		notes.knowHand(viewer);
+		
+		SplittableRandom random = new SplittableRandom(SEED);
+		for (int i = 0; i < suggestions; i++) {
+			Player suggester = seats.get(i % players);
+			int cards = 1 << (Card.FIRST_CHARACTER + random.nextInt(Card.FIRST_WEAPON - Card.FIRST_CHARACTER))
+					| 1 << (Card.FIRST_WEAPON + random.nextInt(Card.FIRST_ROOM - Card.FIRST_WEAPON))
+					| 1 << (Card.FIRST_ROOM + random.nextInt(Card.COUNT - Card.FIRST_ROOM));
+			Player refuter = b.refuterOf(suggester, cards);
+			int shown = SuggestionResult.NONE;
+			if (refuter != null && suggester == viewer)
+				shown = Integer.numberOfTrailingZeros(refuter.handMask() & cards);
+			notes.observe(suggester, cards, refuter, shown, viewer);
+		}
+		return notes;
+	}
+	
+}
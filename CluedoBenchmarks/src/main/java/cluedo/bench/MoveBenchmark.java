@@ -0,0 +1,57 @@
+package cluedo.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cluedo.game.Board;
+import cluedo.game.Character;
+
+/**
+ * Benchmarks Board.move in each direction. Each operation is one step in the
+ * given direction and one step back, so the board ends up as it started.
+ * 
+ * @author Louis Thie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+	// a corridor square with corridor on all four sides
+	private static final int ROW = 8, COL = 6;
+	
+	@Param({"UP", "RIGHT", "DOWN", "LEFT"})
+	public Board.Direction direction;
+	
+	private Board board;
+	private Character c;
+	private Board.Direction back;
+	
+	@Setup
+	public void setup() {
+		board = Games.newGame(6);
+		c = board.getCurrentPlayer().character();
+		board.placeCharacter(c, ROW, COL);
+		
+		Board.Direction[] dirs = Board.Direction.values();
+		back = dirs[(direction.ordinal() + 2) % dirs.length];
+	}
+	
+	@Benchmark
+	public boolean moveAndBack() {
+		return board.move(c, direction, null) & board.move(c, back, null);
+	}
+}
@@ -0,0 +1,48 @@
+package cluedo.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cluedo.game.Deduction;
+import cluedo.game.EnvelopeOdds;
+
+/**
+ * Benchmarks working out the envelope odds for the first Player of a six
+ * player game, after the given number of suggestions have been made. Each
+ * operation uses a new EnvelopeOdds, so nothing is remembered between them.
+ * 
+ * @author Louis Thie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OddsBenchmark {
+	@Param({"0", "6", "12", "18"})
+	public int suggestions;
+	
+	private Deduction notes;
+	
+	@Setup
+	public void setup() {
+		notes = Games.notesAfter(6, suggestions);
+	}
+	
+	@Benchmark
+	public double[] probabilities() {
+		return new EnvelopeOdds(notes).probabilities();
+	}
+}
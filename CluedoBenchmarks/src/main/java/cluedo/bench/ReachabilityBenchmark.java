@@ -0,0 +1,53 @@
+package cluedo.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cluedo.game.Board;
+import cluedo.game.Character;
+import cluedo.game.Reachability;
+
+/**
+ * Benchmarks working out every square and Room reachable with a dice roll,
+ * from the middle of the corridors.
+ * 
+ * @author Louis Thie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReachabilityBenchmark {
+	@Param({"2", "7", "12"})
+	public int roll;
+	
+	private Reachability reach;
+	private Character c;
+	
+	@Setup
+	public void setup() {
+		Board board = Games.newGame(6);
+		c = board.getCurrentPlayer().character();
+		board.placeCharacter(c, 18, 8);
+		reach = new Reachability(board);
+	}
+	
+	@Benchmark
+	public int compute() {
+		reach.compute(c, roll);
+		return reach.rooms();
+	}
+}
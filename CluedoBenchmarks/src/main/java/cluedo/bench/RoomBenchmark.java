@@ -0,0 +1,77 @@
+package cluedo.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.Icon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cluedo.game.Board;
+import cluedo.game.Character;
+import cluedo.game.Room;
+
+/**
+ * Benchmarks the Room checks made while moving, and the icon lookups made
+ * while drawing the board. All of them use the Kitchen, whose door is at
+ * (7, 4) and is entered from (8, 4).
+ * 
+ * @author Louis Thie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomBenchmark {
+	private Room kitchen;
+	private Character c;
+	
+	@Setup
+	public void setup() {
+		Board board = Games.newGame(6);
+		kitchen = board.getRoomByCode(2);
+		c = board.getCurrentPlayer().character();
+		board.bringToRoom(c, kitchen);
+	}
+	
+	@Benchmark
+	public boolean canEnter() {
+		return kitchen.canEnter(8, 4, 7, 4);
+	}
+	
+	@Benchmark
+	public boolean exitToPoint() {
+		return kitchen.exitToPoint(c, 8, 4);
+	}
+	
+	/**
+	 * The Kitchen's name banner.
+	 */
+	@Benchmark
+	public Icon getIconName() {
+		return kitchen.getIcon(3, 0);
+	}
+	
+	/**
+	 * The Character standing in the Kitchen.
+	 */
+	@Benchmark
+	public Icon getIconCharacter() {
+		return kitchen.getIcon(5, 0);
+	}
+	
+	@Benchmark
+	public Icon getIconDoor() {
+		return kitchen.getIcon(7, 4);
+	}
+}
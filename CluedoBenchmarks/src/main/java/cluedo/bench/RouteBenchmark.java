@@ -0,0 +1,51 @@
+package cluedo.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cluedo.game.Board;
+import cluedo.game.Character;
+
+/**
+ * Benchmarks Board.moveTo across the corridors. Each operation walks from one
+ * side of the board to the other and back again, so the board ends up as it
+ * started.
+ * 
+ * @author Louis Thie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteBenchmark {
+	private static final int FROM_ROW = 8, FROM_COL = 6;
+	private static final int TO_ROW = 18, TO_COL = 16;
+	
+	private Board board;
+	private Character c;
+	
+	@Setup
+	public void setup() {
+		board = Games.newGame(6);
+		c = board.getCurrentPlayer().character();
+		board.placeCharacter(c, FROM_ROW, FROM_COL);
+	}
+	
+	@Benchmark
+	public boolean moveThereAndBack() {
+		board.setRemainingMoves(100);
+		return board.moveTo(c, TO_ROW, TO_COL) & board.moveTo(c, FROM_ROW, FROM_COL);
+	}
+}
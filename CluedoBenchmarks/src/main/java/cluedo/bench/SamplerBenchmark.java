@@ -0,0 +1,49 @@
+package cluedo.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cluedo.game.DealSampler;
+
+/**
+ * Benchmarks drawing deals for the first Player of a six player game, after
+ * the given number of suggestions have been made. The same DealSampler is
+ * used throughout, as it would be between two moves.
+ * 
+ * @author Louis Thie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SamplerBenchmark {
+	@Param({"0", "6", "12", "18"})
+	public int suggestions;
+	
+	private DealSampler sampler;
+	
+	@Setup
+	public void setup() {
+		sampler = new DealSampler(Games.notesAfter(6, suggestions), new SplittableRandom(Games.SEED));
+	}
+	
+	@Benchmark
+	public int[] sample() {
+		sampler.sample();
+		return sampler.hands();
+	}
+}